@@ -0,0 +1,49 @@
+package com.tess4j.rest;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 정규식/split 기반의 이전 구현. TextFormattingBenchmark 의 비교 기준으로만 사용한다.
+ */
+final class LegacyTextFormatting {
+
+    private LegacyTextFormatting() {
+    }
+
+    static String process(String text) {
+        text = text.replaceAll("\\s+", " ");
+        text = text.replaceAll("[。!~@#$%^&*().?\":{}|<>=_—-]", "");
+        return text.trim();
+    }
+
+    static String addCommasToNumbers(String input) {
+        NumberFormat numberFormat = NumberFormat.getNumberInstance(Locale.US);
+
+        Pattern pattern = Pattern.compile("\\d+,?\\d*");
+        Matcher matcher = pattern.matcher(input);
+
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String number = matcher.group().replaceAll(",", "");
+            String formattedNumber = numberFormat.format(Long.parseLong(number));
+            matcher.appendReplacement(result, formattedNumber);
+        }
+        matcher.appendTail(result);
+
+        return result.toString();
+    }
+
+    static String getDisplayText(int index, String recognizedText) {
+        var player = "[Player " + index + "] ";
+        if (Set.of(3, 4, 6, 9).contains(index)
+                && recognizedText.contains("백") && recognizedText.contains("버")
+                && recognizedText.split("버").length > 1) {
+            return player + recognizedText.split("버")[1] + " " + addCommasToNumbers(recognizedText.split("백")[0]) + " WON";
+        }
+        return player + addCommasToNumbers(DynamicTextRegionFinder.trimAfterLastComma(recognizedText).split("백")[0]) + " WON";
+    }
+}
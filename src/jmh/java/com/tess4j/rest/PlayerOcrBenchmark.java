@@ -0,0 +1,58 @@
+package com.tess4j.rest;
+
+import net.sourceforge.tess4j.TesseractException;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플레이어 영역 하나의 doOCR 비용. 엔진 재사용과 매 호출 엔진을 새로 만드는 경우(예전 Tesseract.doOCR 처럼
+ * init/dispose 로 traineddata 를 다시 읽음)를 비교한다.
+ * reusedEngine 은 BufferedImage 에서 영역을 잘라 넘기고, reusedEngineOnFrame 은 미리 만든 프레임 버퍼에서 영역만 복사한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PlayerOcrBenchmark {
+
+    @Param({"1", "3"})
+    public int playerIndex;
+
+    private BufferedImage image;
+    private OcrFrame frame;
+    private Rectangle region;
+    private OcrEngine engine;
+
+    @Setup
+    public void setUp() {
+        image = ScreenFixtures.table(1920, 1080, 9);
+        frame = OcrFrame.of(FramePreprocessor.toGray(image));
+        region = ScreenFixtures.player(playerIndex).toAbsoluteRectangle(image.getWidth(), image.getHeight());
+        engine = new OcrEngine(OcrEngineConfig.SINGLE_LINE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+        frame.close();
+    }
+
+    @Benchmark
+    public String reusedEngine() throws TesseractException {
+        return engine.doOCR(image, region);
+    }
+
+    @Benchmark
+    public String reusedEngineOnFrame() throws TesseractException {
+        return engine.doOCR(frame, region);
+    }
+
+    @Benchmark
+    public String newEnginePerCall() throws TesseractException {
+        try (OcrEngine fresh = new OcrEngine(OcrEngineConfig.SINGLE_LINE)) {
+            return fresh.doOCR(image, region);
+        }
+    }
+}
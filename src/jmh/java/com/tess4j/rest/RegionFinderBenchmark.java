@@ -0,0 +1,60 @@
+package com.tess4j.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sourceforge.tess4j.TesseractException;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findDynamicRegions 전체 (calibration) 비용.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class RegionFinderBenchmark {
+
+    @Param({"table", "table-half", "testocr"})
+    public String fixture;
+
+    @Param({"WORD_BOX", "SLIDING_WINDOW"})
+    public DynamicTextRegionFinder.LocatorMode locator;
+
+    @Param({"BISECT", "LINEAR"})
+    public DynamicTextRegionFinder.ExpandStrategy strategy;
+
+    // SLIDING_WINDOW 의 eng / 숫자 probe
+    @Param({"true", "false"})
+    public boolean probe;
+
+    private TesseractPool tesseractPool;
+    private DynamicTextRegionFinder finder;
+    private BufferedImage image;
+
+    @Setup
+    public void setUp() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        tesseractPool = new TesseractPool(0, 60_000, 1,
+                new OcrConcurrencyLimiter(0, Integer.MAX_VALUE, Duration.ofMinutes(1), meterRegistry), meterRegistry);
+        tesseractPool.warmUp();
+        // 전체 비용을 재므로 예산 제한 없음
+        finder = new DynamicTextRegionFinder(tesseractPool, meterRegistry, locator, strategy, 0, Duration.ZERO, probe, 2);
+        image = ScreenFixtures.load(fixture);
+    }
+
+    @TearDown
+    public void tearDown() {
+        finder.shutdown();
+        tesseractPool.close();
+    }
+
+    @Benchmark
+    public PlayerLayout findDynamicRegions() throws TesseractException {
+        return finder.findDynamicRegions(image, new PlayerLayout());
+    }
+}
@@ -0,0 +1,75 @@
+package com.tess4j.rest;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 벤치마크용 화면 이미지.
+ * table : DynamicTextRegionFinder 의 Y_RATIOS 위치에 플레이어 텍스트와 "Total" 을 그린 합성 화면
+ * testocr : 저장소 루트의 testocr.png (플레이어가 없는 화면 = calibration 최악의 경우)
+ */
+final class ScreenFixtures {
+
+    // index -> {yRatio, xRatio, 왼쪽 여부}
+    private static final double[][] SEATS = {
+            {0.26, 0.05, 1}, {0.21, 0.05, 1}, {0.21, 0.62, 0}, {0.26, 0.62, 0}, {0.485, 0.05, 1},
+            {0.485, 0.62, 0}, {0.715, 0.05, 1}, {0.94, 0.22, 1}, {0.715, 0.62, 0}
+    };
+
+    private ScreenFixtures() {
+    }
+
+    static BufferedImage load(String fixture) throws IOException {
+        return switch (fixture) {
+            case "table" -> table(1920, 1080, 9);
+            case "table-half" -> table(1920, 1080, 4);
+            case "testocr" -> testOcr();
+            default -> throw new IllegalArgumentException(fixture);
+        };
+    }
+
+    static BufferedImage testOcr() throws IOException {
+        try (InputStream input = ScreenFixtures.class.getResourceAsStream("/testocr.png")) {
+            return ImageIO.read(input);
+        }
+    }
+
+    static BufferedImage table(int width, int height, int seated) {
+        return table(width, height, seated, 0);
+    }
+
+    /**
+     * @param hand 금액을 바꿔 그릴 판 번호 (같은 자리, 다른 텍스트)
+     */
+    static BufferedImage table(int width, int height, int seated, int hand) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setColor(new Color(20, 60, 30));
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.WHITE);
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, (int) (height * 0.03 * 0.7)));
+
+        for (int i = 0; i < seated; i++) {
+            double[] seat = SEATS[i];
+            int index = i + 1;
+            String nickname = "player0" + index;
+            String amount = (index * 12345 + hand * 1000) + "백 실 " + index + "버";
+            String text = seat[2] == 1 ? nickname + " " + amount : amount + " " + nickname;
+            int baseline = (int) (seat[0] * height + height * 0.03 * 0.8);
+            graphics.drawString(text, (int) (seat[1] * width), baseline);
+        }
+
+        graphics.drawString("Total 1,234,567", width / 3 + 10, height / 2 + (int) (height * 0.03));
+        graphics.dispose();
+        return image;
+    }
+
+    static DynamicTextRegionFinder.Player player(int index) {
+        double[] seat = SEATS[index - 1];
+        return new DynamicTextRegionFinder.Player(index, seat[1] - 0.01, seat[0], 0.2, 0.03);
+    }
+}
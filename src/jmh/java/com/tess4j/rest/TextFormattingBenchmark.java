@@ -0,0 +1,71 @@
+package com.tess4j.rest;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OCR 결과 후처리와 표시 문자열 생성 비용. 프레임마다 플레이어 수만큼 실행된다.
+ * legacy* 는 정규식/split 기반 이전 구현 (-prof gc 의 gc.alloc.rate.norm 으로 할당량 비교).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TextFormattingBenchmark {
+
+    private static final String RAW_LEFT = "  player01 —  1234567백.  실 3버 ~ ";
+    private static final String RAW_RIGHT = "12,345백 실\n3버   player03 ";
+
+    private final DynamicTextRegionFinder.Player left = ScreenFixtures.player(1);
+    private final DynamicTextRegionFinder.Player right = ScreenFixtures.player(3);
+
+    @Benchmark
+    public String process() {
+        return OcrPostProcessor.process(RAW_LEFT);
+    }
+
+    @Benchmark
+    public String displayTextLeft() {
+        return left.getDisplayText("player01 1234567백 실 3버");
+    }
+
+    @Benchmark
+    public String displayTextRight() {
+        return right.getDisplayText("12,345백 실 3버 player03");
+    }
+
+    @Benchmark
+    public String addCommasToNumbers() {
+        return DynamicTextRegionFinder.addCommasToNumbers("1234567 12,345 7");
+    }
+
+    @Benchmark
+    public String processAndDisplay() {
+        return right.getDisplayText(OcrPostProcessor.process(RAW_RIGHT));
+    }
+
+    @Benchmark
+    public String legacyProcess() {
+        return LegacyTextFormatting.process(RAW_LEFT);
+    }
+
+    @Benchmark
+    public String legacyDisplayTextLeft() {
+        return LegacyTextFormatting.getDisplayText(1, "player01 1234567백 실 3버");
+    }
+
+    @Benchmark
+    public String legacyDisplayTextRight() {
+        return LegacyTextFormatting.getDisplayText(3, "12,345백 실 3버 player03");
+    }
+
+    @Benchmark
+    public String legacyAddCommasToNumbers() {
+        return LegacyTextFormatting.addCommasToNumbers("1234567 12,345 7");
+    }
+
+    @Benchmark
+    public String legacyProcessAndDisplay() {
+        return LegacyTextFormatting.getDisplayText(3, LegacyTextFormatting.process(RAW_RIGHT));
+    }
+}
@@ -0,0 +1,312 @@
+package com.tess4j.rest;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 스크린샷 코퍼스를 동시 실행 수만큼의 사용자 세션으로 ocr/v1/recognize-screen 에 재생한다.
+ * 워커마다 loadtest-{n} 사용자 하나를 쓰고 코퍼스를 순서대로 돌며 보낸다 (같은 사용자의 연속 프레임처럼).
+ * warmup 이후 구간의 지연 p50/p90/p99, 처리량, 그리고 서버 /actuator/prometheus 의 ocr_request_calls 로
+ * 프레임당 OCR 호출 수를 보고한다.
+ *
+ * <pre>
+ * --base-url=http://localhost:8080  --corpus=loadtest/corpus  --concurrency=8
+ * --duration=60s  --warmup=10s  --users=64  --password=loadtest  --generate=24
+ * </pre>
+ * corpus 디렉터리에 png/jpg 가 없으면 합성 화면 generate 장(Total 화면 + 비 Total 화면)을 만들어 둔다.
+ * 실제 화면을 재생하려면 녹화한 스크린샷을 그 디렉터리에 넣으면 된다 (파일 이름 순서로 재생).
+ */
+public final class LoadTestDriver {
+
+    private static final String BOUNDARY = "----loadtest-boundary";
+
+    private final Map<String, String> options;
+    private final HttpClient client;
+    private final String baseUrl;
+
+    private LoadTestDriver(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = option("base-url", "http://localhost:8080");
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("expected --name=value : " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTestDriver(options).run();
+    }
+
+    private void run() throws Exception {
+        int concurrency = Integer.parseInt(option("concurrency", "8"));
+        int users = Integer.parseInt(option("users", "64"));
+        Duration duration = duration(option("duration", "60s"));
+        Duration warmup = duration(option("warmup", "10s"));
+        List<byte[]> corpus = loadCorpus(Paths.get(option("corpus", "loadtest/corpus")), Integer.parseInt(option("generate", "24")));
+        System.out.printf("replaying %d frames with %d workers for %s (+%s warmup) against %s%n",
+                corpus.size(), concurrency, duration, warmup, baseUrl);
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        Counts counts = new Counts();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> latencies = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            int worker = i;
+            latencies.add(workers.submit(() -> replay(worker, users, corpus, measureFrom, end, counts)));
+        }
+
+        sleepUntil(measureFrom);
+        Map<String, Double> before = scrape();
+        sleepUntil(end);
+        Map<String, Double> after = scrape();
+
+        List<long[]> perWorker = new ArrayList<>();
+        for (Future<long[]> future : latencies) {
+            perWorker.add(future.get());
+        }
+        workers.shutdown();
+        report(merge(perWorker), duration, counts, before, after);
+    }
+
+    /**
+     * 한 워커의 재생 루프. 측정 구간에 시작한 요청의 지연(ns)만 돌려준다.
+     */
+    private long[] replay(int worker, int users, List<byte[]> corpus, long measureFrom, long end, Counts counts) {
+        String userId = "loadtest-" + (worker % users + 1);
+        URI uri = URI.create(baseUrl + "/ocr/v1/recognize-screen?userId=" + URLEncoder.encode(userId, StandardCharsets.UTF_8)
+                + "&userPassword=" + URLEncoder.encode(option("password", "loadtest"), StandardCharsets.UTF_8));
+        long[] samples = new long[1024];
+        int size = 0;
+        // 워커마다 다른 위치부터 재생해 같은 프레임이 동시에 몰리지 않게 함
+        int next = worker % corpus.size();
+        while (System.nanoTime() < end) {
+            byte[] body = corpus.get(next);
+            next = (next + 1) % corpus.size();
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            long sent = System.nanoTime();
+            boolean measured = sent >= measureFrom;
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                long elapsed = System.nanoTime() - sent;
+                if (!measured) {
+                    continue;
+                }
+                if (response.statusCode() == 429) {
+                    counts.rejected.increment();
+                } else if (response.statusCode() != 200 || response.body().contains("FAIL TO LOGIN")) {
+                    counts.errors.increment();
+                } else {
+                    if (size == samples.length) {
+                        samples = Arrays.copyOf(samples, size * 2);
+                    }
+                    samples[size++] = elapsed;
+                }
+            } catch (IOException e) {
+                if (measured) {
+                    counts.errors.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return Arrays.copyOf(samples, size);
+    }
+
+    private void report(long[] latencies, Duration duration, Counts counts, Map<String, Double> before, Map<String, Double> after) {
+        Arrays.sort(latencies);
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("requests     %d ok, %d errors, %d rejected (429)%n", latencies.length, counts.errors.sum(), counts.rejected.sum());
+        System.out.printf("throughput   %.1f req/s%n", latencies.length / seconds);
+        if (latencies.length > 0) {
+            System.out.printf("latency      p50 %.1f ms  p90 %.1f ms  p99 %.1f ms  max %.1f ms%n",
+                    millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.90)),
+                    millis(percentile(latencies, 0.99)), millis(latencies[latencies.length - 1]));
+        }
+        double frames = delta(before, after, "ocr_request_calls_count");
+        double calls = delta(before, after, "ocr_request_calls_sum");
+        if (frames > 0) {
+            System.out.printf("ocr calls    %.2f per frame (%.0f frames, %.0f calls)%n", calls / frames, frames, calls);
+        } else {
+            System.out.println("ocr calls    n/a (actuator/prometheus not reachable or no frames recorded)");
+        }
+    }
+
+    static long percentile(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static long[] merge(List<long[]> parts) {
+        long[] merged = new long[parts.stream().mapToInt(part -> part.length).sum()];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, merged, offset, part.length);
+            offset += part.length;
+        }
+        return merged;
+    }
+
+    private static double delta(Map<String, Double> before, Map<String, Double> after, String metric) {
+        return after.getOrDefault(metric, 0.0) - before.getOrDefault(metric, 0.0);
+    }
+
+    /**
+     * Prometheus 텍스트 형식에서 메트릭별 값을 태그 구분 없이 더한다. 읽지 못하면 빈 맵.
+     */
+    private Map<String, Double> scrape() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/prometheus"))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        try {
+            return parsePrometheus(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        } catch (IOException e) {
+            return Map.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of();
+        }
+    }
+
+    static Map<String, Double> parsePrometheus(String text) {
+        Map<String, Double> values = new HashMap<>();
+        for (String line : text.split("\n")) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int nameEnd = line.indexOf('{');
+            int valueStart = line.lastIndexOf(' ');
+            if (valueStart < 0) {
+                continue;
+            }
+            String name = line.substring(0, nameEnd >= 0 ? nameEnd : valueStart);
+            try {
+                values.merge(name, Double.parseDouble(line.substring(valueStart + 1)), Double::sum);
+            } catch (NumberFormatException e) {
+                // NaN 이외의 이상한 값은 무시
+            }
+        }
+        return values;
+    }
+
+    private static List<byte[]> loadCorpus(Path directory, int generate) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files = list(directory);
+        if (files.isEmpty()) {
+            generateCorpus(directory, generate);
+            files = list(directory);
+        }
+        List<byte[]> corpus = new ArrayList<>(files.size());
+        for (Path file : files) {
+            corpus.add(multipart(file.getFileName().toString(), Files.readAllBytes(file)));
+        }
+        return corpus;
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+                        return name.endsWith(".png") || name.endsWith(".jpg") || name.endsWith(".jpeg");
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * 판마다 금액만 바뀌는 Total 화면과, 네 판마다 한 번씩 비 Total 화면(testocr.png)을 섞는다.
+     */
+    private static void generateCorpus(Path directory, int count) throws IOException {
+        BufferedImage scanning = ScreenFixtures.testOcr();
+        for (int i = 0; i < count; i++) {
+            BufferedImage frame = i % 4 == 3 ? scanning : ScreenFixtures.table(1920, 1080, 9, i);
+            ImageIO.write(frame, "png", directory.resolve(String.format("frame-%04d.png", i)).toFile());
+        }
+        System.out.printf("generated %d synthetic frames in %s%n", count, directory);
+    }
+
+    private static byte[] multipart(String fileName, byte[] content) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 256);
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+        }
+    }
+
+    /**
+     * "90s", "5m", "500ms" 또는 초 단위 숫자.
+     */
+    static Duration duration(String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(text));
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static final class Counts {
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+    }
+}
@@ -0,0 +1,4 @@
+-- loadtest 프로필 전용 (H2). 드라이버는 동시 실행 수만큼 loadtest-{n} 사용자를 나눠 씀
+-- DATABASE_TO_LOWER 이면 따옴표 없는 x 는 "x" 로 바뀌어 SYSTEM_RANGE 의 "X" 열을 못 찾음
+INSERT INTO users (user_id, user_password, players)
+SELECT 'loadtest-' || "X", 'loadtest', '[]' FORMAT JSON FROM SYSTEM_RANGE(1, 64);
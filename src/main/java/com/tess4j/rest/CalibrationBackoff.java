@@ -0,0 +1,99 @@
+package com.tess4j.rest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * calibration 에서 찾지 못한 자리(사용자, index)를 기억해 두고, 실패가 반복될수록 다시 찾기까지의 간격을 늘린다.
+ * 빈 자리 때문에 매 프레임 밴드 전체를 다시 스캔하는 것을 막는다.
+ */
+@Component
+public class CalibrationBackoff {
+
+    private final boolean enabled;
+    private final long initialNanos;
+    private final long maxNanos;
+    private final double multiplier;
+    private final Cache<Seat, Failure> failures;
+    private final Counter skipped;
+
+    public CalibrationBackoff(@Value("${ocr.calibration.backoff.enabled:true}") boolean enabled,
+                              @Value("${ocr.calibration.backoff.initial:5s}") Duration initial,
+                              @Value("${ocr.calibration.backoff.max:5m}") Duration max,
+                              @Value("${ocr.calibration.backoff.multiplier:2.0}") double multiplier,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.initialNanos = initial.toNanos();
+        this.maxNanos = max.toNanos();
+        this.multiplier = multiplier;
+        // 최대 간격의 두 배 동안 다시 시도하지 않은 자리는 잊음 (사용자가 떠난 경우)
+        this.failures = Caffeine.newBuilder()
+                .expireAfterAccess(max.multipliedBy(2))
+                .build();
+        this.skipped = meterRegistry.counter("ocr.calibration.backoff.skipped");
+        Gauge.builder("ocr.calibration.backoff.seats", this, CalibrationBackoff::waitingSeats)
+                .description("Seats currently waiting before the next calibration attempt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 아직 재시도 시각이 되지 않아 이번에 찾지 않을 index.
+     */
+    public Set<Integer> skippedIndices(String userId, Set<Integer> missingIndices) {
+        Set<Integer> skip = new HashSet<>();
+        if (!enabled) {
+            return skip;
+        }
+        long now = System.nanoTime();
+        for (int index : missingIndices) {
+            Failure failure = failures.getIfPresent(new Seat(userId, index));
+            if (failure != null && now - failure.retryAt < 0) {
+                skip.add(index);
+            }
+        }
+        skipped.increment(skip.size());
+        return skip;
+    }
+
+    /**
+     * 이번 calibration 에서 찾으려 한 index 중 찾은 자리는 지우고, 못 찾은 자리는 간격을 늘려 기록한다.
+     */
+    public void record(String userId, Set<Integer> attemptedIndices, Set<Integer> foundIndices) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (int index : attemptedIndices) {
+            Seat seat = new Seat(userId, index);
+            if (foundIndices.contains(index)) {
+                failures.invalidate(seat);
+                continue;
+            }
+            failures.asMap().compute(seat, (key, previous) -> {
+                int count = previous == null ? 1 : previous.count + 1;
+                long delay = (long) Math.min(maxNanos, initialNanos * Math.pow(multiplier, count - 1));
+                return new Failure(count, now + delay);
+            });
+        }
+    }
+
+    private double waitingSeats() {
+        long now = System.nanoTime();
+        return failures.asMap().values().stream().filter(failure -> now - failure.retryAt < 0).count();
+    }
+
+    private record Seat(String userId, int index) {
+    }
+
+    private record Failure(int count, long retryAt) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.tess4j.rest;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * calibration 한 번(findDynamicRegions 호출 하나)이 쓸 수 있는 OCR 호출 수와 시간.
+ * 밴드들이 병렬로 같은 예산을 나눠 쓰고, 어느 한 밴드가 다 쓰면 나머지 밴드도 다음 OCR 전에 멈춘다.
+ * 밴드는 공용 스레드에서 돌기 때문에 인터럽트는 밴드 스레드가 아니라 예산을 만든 스레드(calibration 을 요청한 쪽)를 본다.
+ */
+public final class CalibrationBudget {
+
+    public enum Reason {
+        CALLS, TIME, INTERRUPTED
+    }
+
+    private final AtomicLong remainingCalls;
+    private final long deadline;
+    private final boolean timeLimited;
+    private final Thread owner;
+    private volatile boolean cancelled;
+    private volatile Reason exhausted;
+
+    /**
+     * @param maxCalls 0 이하면 호출 수 제한 없음
+     * @param maxTime  0 이면 시간 제한 없음
+     */
+    public CalibrationBudget(long maxCalls, Duration maxTime) {
+        this.owner = Thread.currentThread();
+        this.remainingCalls = new AtomicLong(maxCalls > 0 ? maxCalls : Long.MAX_VALUE);
+        this.timeLimited = !maxTime.isZero() && !maxTime.isNegative();
+        this.deadline = System.nanoTime() + (timeLimited ? maxTime.toNanos() : 0);
+    }
+
+    public static CalibrationBudget unlimited() {
+        return new CalibrationBudget(0, Duration.ZERO);
+    }
+
+    /**
+     * OCR 한 번을 실행하기 전에 부른다. 예산이 남아 있지 않으면 {@link ExhaustedException}.
+     */
+    void spend() {
+        Reason reason = exhausted;
+        if (reason == null) {
+            if (cancelled || owner.isInterrupted()) {
+                reason = Reason.INTERRUPTED;
+            } else if (timeLimited && System.nanoTime() - deadline >= 0) {
+                reason = Reason.TIME;
+            } else if (remainingCalls.decrementAndGet() < 0) {
+                reason = Reason.CALLS;
+            } else {
+                return;
+            }
+            exhaust(reason);
+        }
+        throw new ExhaustedException(exhausted);
+    }
+
+    /**
+     * 예산을 만든 스레드가 기다리다 인터럽트됐을 때 부른다 (InterruptedException 을 받으면 인터럽트 상태가 지워지므로).
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    private synchronized void exhaust(Reason reason) {
+        if (exhausted == null) {
+            exhausted = reason;
+        }
+    }
+
+    public boolean isExhausted() {
+        return exhausted != null;
+    }
+
+    /**
+     * 예산을 다 쓴 이유. 다 쓰지 않았으면 null.
+     */
+    public Reason exhaustedReason() {
+        return exhausted;
+    }
+
+    /**
+     * 예산이 떨어져 밴드 탐색을 중단할 때 던진다. 밴드는 그때까지 찾은 플레이어만 돌려준다.
+     */
+    static final class ExhaustedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ExhaustedException(Reason reason) {
+            super("calibration budget exhausted : " + reason, null, false, false);
+        }
+    }
+}
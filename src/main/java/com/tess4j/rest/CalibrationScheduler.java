@@ -0,0 +1,149 @@
+package com.tess4j.rest;
+
+import com.tess4j.rest.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import net.sourceforge.tess4j.TesseractException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 빠진 플레이어 좌표를 찾는 calibration 을 실행한다.
+ * async 이면 요청은 이미 아는 플레이어만으로 응답하고, calibration 은 전처리한 이미지를 들고 백그라운드 워커에서 돈다.
+ * 프레임 버퍼({@link OcrFrame})는 calibration 을 실제로 시작할 때 만들고 끝나면 돌려준다.
+ * 사용자당 동시에 하나만 실행하며, 끝나면 찾은 좌표를 {@link UserSessionCache#updatePlayers} 로 합친다.
+ */
+@Component
+public class CalibrationScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalibrationScheduler.class);
+
+    private final DynamicTextRegionFinder regionFinder;
+    private final CalibrationBackoff calibrationBackoff;
+    private final LayoutProfileService layoutProfileService;
+    private final UserSessionCache userSessionCache;
+    private final FramePreprocessor framePreprocessor;
+    private final boolean async;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Counter submitted;
+    private final Counter deduplicated;
+    private final Counter rejected;
+
+    public CalibrationScheduler(DynamicTextRegionFinder regionFinder,
+                                CalibrationBackoff calibrationBackoff,
+                                LayoutProfileService layoutProfileService,
+                                UserSessionCache userSessionCache,
+                                FramePreprocessor framePreprocessor,
+                                @Value("${ocr.calibration.async:false}") boolean async,
+                                @Value("${ocr.calibration.workers:2}") int workers,
+                                @Value("${ocr.calibration.queue-capacity:32}") int queueCapacity,
+                                MeterRegistry meterRegistry) {
+        this.regionFinder = regionFinder;
+        this.calibrationBackoff = calibrationBackoff;
+        this.layoutProfileService = layoutProfileService;
+        this.userSessionCache = userSessionCache;
+        this.framePreprocessor = framePreprocessor;
+        this.async = async;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "calibration-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.submitted = meterRegistry.counter("ocr.calibration.jobs", "outcome", "submitted");
+        this.deduplicated = meterRegistry.counter("ocr.calibration.jobs", "outcome", "deduplicated");
+        this.rejected = meterRegistry.counter("ocr.calibration.jobs", "outcome", "rejected");
+        Gauge.builder("ocr.calibration.jobs.queue", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("ocr.calibration.jobs.in_flight", inFlight, Set::size)
+                .register(meterRegistry);
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * 백그라운드 calibration 을 예약한다. 같은 사용자의 calibration 이 이미 돌고 있거나 큐가 가득 차면 예약하지 않는다
+     * (다음 프레임에서 다시 예약됨).
+     */
+    public boolean submit(User user, FramePreprocessor.Prepared prepared) {
+        String userId = user.getUserId();
+        if (!inFlight.add(userId)) {
+            deduplicated.increment();
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    PlayerLayout found = calibrate(userId, prepared, userSessionCache.players(user), new LongAdder());
+                    if (!found.isEmpty()) {
+                        userSessionCache.updatePlayers(user, found);
+                    }
+                } catch (TesseractException | RuntimeException e) {
+                    LOGGER.warn("background calibration failed for {} : {}", userId, e.getMessage());
+                } finally {
+                    inFlight.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(userId);
+            rejected.increment();
+            return false;
+        }
+        submitted.increment();
+        return true;
+    }
+
+    /**
+     * 현재 스레드에서 calibration 을 실행하고 새로 찾은 플레이어를 돌려준다.
+     * 최근에 못 찾은 자리는 backoff 간격이 지날 때까지 다시 찾지 않는다.
+     * OCR 호출 수/시간 예산(ocr.calibration.budget)을 넘으면 그때까지 찾은 플레이어만 돌려준다.
+     */
+    public PlayerLayout calibrate(String userId, FramePreprocessor.Prepared prepared, PlayerLayout players, LongAdder ocrCalls) throws TesseractException {
+        Set<Integer> missing = players.missingIndices();
+        Set<Integer> skip = calibrationBackoff.skippedIndices(userId, missing);
+        if (skip.size() >= missing.size()) {
+            return new PlayerLayout();
+        }
+        CalibrationBudget budget = regionFinder.newBudget();
+        PlayerLayout found;
+        int width;
+        int height;
+        try (OcrFrame frame = framePreprocessor.frame(prepared)) {
+            found = regionFinder.findDynamicRegions(frame, players, skip, budget, ocrCalls);
+            width = frame.getWidth();
+            height = frame.getHeight();
+        }
+        missing.removeAll(skip);
+        // 예산이 떨어져 중단됐으면 끝까지 찾아보지 못한 자리이므로 backoff 하지 않음 (찾은 자리만 정리)
+        calibrationBackoff.record(userId, budget.isExhausted() ? found.indices() : missing, found.indices());
+        if (!found.isEmpty()) {
+            PlayerLayout merged = players.copy();
+            merged.addAll(found);
+            layoutProfileService.learn(userId, width, height, merged);
+        }
+        return found;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
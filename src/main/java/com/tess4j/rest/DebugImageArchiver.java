@@ -0,0 +1,198 @@
+package com.tess4j.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 디버그용 영역 이미지를 요청 스레드 밖에서 PNG 로 저장한다.
+ * 큐가 가득 차면 OCR 응답을 늦추지 않고 버리며(개수는 메트릭으로 남김), 보관 개수/기간을 넘은 파일은 지운다.
+ * 정리는 시작할 때, 저장할 때마다, 그리고 큐가 prune-interval 동안 비어 있을 때 한다 (저장이 멈춰도 기간이 지난 파일은 지워지게).
+ */
+@Component
+public class DebugImageArchiver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DebugImageArchiver.class);
+    // 이 클래스가 만든 파일만 정리 대상 ({userId}_{yyyyMMdd_HHmmss}_player_{n}.png, ..._scanning.png)
+    private static final Pattern ARCHIVE_FILE_NAME = Pattern.compile("^.+_\\d{8}_\\d{6}_(player_\\d+|scanning)\\.png$");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final double sampleRate;
+    private final float compressionQuality;
+    private final int maxFiles;
+    private final Duration maxAge;
+    private final Duration pruneInterval;
+    private final BlockingQueue<Crop> queue;
+    private final Deque<Path> archived = new ArrayDeque<>();
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter sampledOut;
+    private Thread worker;
+
+    public DebugImageArchiver(@Value("${ocr.archive.enabled:true}") boolean enabled,
+                              @Value("${ocr.archive.directory:" + Tess4jV1.SUBIMAGE_STORAGE_PATH + "}") String directory,
+                              @Value("${ocr.archive.queue-capacity:256}") int queueCapacity,
+                              @Value("${ocr.archive.sample-rate:1.0}") double sampleRate,
+                              @Value("${ocr.archive.compression-level:1}") int compressionLevel,
+                              @Value("${ocr.archive.max-files:10000}") int maxFiles,
+                              @Value("${ocr.archive.max-age:24h}") Duration maxAge,
+                              @Value("${ocr.archive.prune-interval:1m}") Duration pruneInterval,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.sampleRate = sampleRate;
+        // deflate level 0(무압축)~9(최대) 를 ImageWriteParam 의 quality 로 변환
+        this.compressionQuality = 1f - Math.max(0, Math.min(9, compressionLevel)) / 9f;
+        this.maxFiles = maxFiles;
+        this.maxAge = maxAge;
+        this.pruneInterval = pruneInterval;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.written = meterRegistry.counter("ocr.archive.crops", "outcome", "written");
+        this.dropped = meterRegistry.counter("ocr.archive.crops", "outcome", "dropped");
+        this.sampledOut = meterRegistry.counter("ocr.archive.crops", "outcome", "sampled_out");
+        Gauge.builder("ocr.archive.queue", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        loadExistingFiles();
+        worker = new Thread(this::run, "debug-image-archiver");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 이미지를 저장 큐에 넣는다. 요청 스레드를 막지 않는다.
+     */
+    public void archive(BufferedImage image, String fileName) {
+        if (!enabled) {
+            return;
+        }
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.increment();
+            return;
+        }
+        // getSubimage 는 원본 프레임을 참조하므로, 큐에 들어갈 때만 영역만 복사해서 프레임을 붙잡지 않게 함
+        if (queue.remainingCapacity() == 0 || !queue.offer(new Crop(copy(image), fileName))) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Crop crop = queue.poll(pruneInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (crop != null) {
+                    write(crop);
+                }
+                enforceRetention();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("debug image archive failed : {}", e.getMessage());
+            }
+        }
+    }
+
+    private void write(Crop crop) throws IOException {
+        Path path = directory.resolve(crop.fileName());
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(path.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(compressionQuality);
+            }
+            writer.write(null, new IIOImage(crop.image(), null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        archived.addLast(path);
+        written.increment();
+    }
+
+    private void enforceRetention() throws IOException {
+        Instant expiry = Instant.now().minus(maxAge);
+        while (!archived.isEmpty() && (archived.size() > maxFiles || isExpired(archived.peekFirst(), expiry))) {
+            Files.deleteIfExists(archived.pollFirst());
+        }
+    }
+
+    private static boolean isExpired(Path path, Instant expiry) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(expiry);
+        } catch (IOException e) {
+            // 이미 지워진 파일은 목록에서만 빼면 됨
+            return true;
+        }
+    }
+
+    private void loadExistingFiles() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> ARCHIVE_FILE_NAME.matcher(path.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(path -> path.toFile().lastModified()))
+                    .forEach(archived::addLast);
+            enforceRetention();
+        } catch (IOException e) {
+            LOGGER.warn("debug image archive scan failed : {}", e.getMessage());
+        }
+    }
+
+    static BufferedImage copy(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(),
+                image.getType() == BufferedImage.TYPE_CUSTOM ? BufferedImage.TYPE_INT_RGB : image.getType());
+        Graphics2D graphics = copy.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return copy;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private record Crop(BufferedImage image, String fileName) {
+    }
+}
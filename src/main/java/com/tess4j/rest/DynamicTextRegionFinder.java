@@ -3,29 +3,41 @@ package com.tess4j.rest;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
-import net.sourceforge.tess4j.ITesseract;
-import net.sourceforge.tess4j.Tesseract;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import net.sourceforge.tess4j.ITessAPI;
 import net.sourceforge.tess4j.TesseractException;
+import net.sourceforge.tess4j.Word;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.text.NumberFormat;
+import java.time.Duration;
 import java.util.*;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.regex.Matcher;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+@Component
 public class DynamicTextRegionFinder {
     private static final Logger LOGGER = LoggerFactory.getLogger(DynamicTextRegionFinder.class);
     private static final double HEIGHT_RATIO = 0.03;
     private static final double[] Y_RATIOS = {0.21, 0.26, 0.485, 0.715, 0.94};
     private static final double MIN_WIDTH_RATIO = 0.15;
     private static final double MAX_WIDTH_RATIO = 0.28;
+    private static final int EXPAND_WIDTH = 20;
+    private static final int COARSE_EXPAND_STEPS = 4;
 
     private static final Pattern START_PATTERN_LEFT = Pattern.compile("^\\s?[A-Za-z0-9]{5,}");
     private static final Pattern END_PATTERN_LEFT = Pattern.compile("버\\s*$");
@@ -33,44 +45,183 @@ public class DynamicTextRegionFinder {
     private static final Pattern END_PATTERN_RIGHT = Pattern.compile("[A-Za-z][A-Za-z0-9]{4,}\\s*");
     private static final Pattern MID_PATTERN = Pattern.compile(".*백.*실.*버.*");
 
-    public List<Player> findDynamicRegions(BufferedImage image, List<Player> existPlayer) throws TesseractException {
+    /**
+     * SLIDING_WINDOW : 20px 씩 창을 옮기며 매번 OCR (기존 방식)
+     * WORD_BOX : 밴드를 한 번만 OCR 하고 단어 박스로 플레이어 영역을 바로 계산
+     */
+    public enum LocatorMode {
+        SLIDING_WINDOW, WORD_BOX
+    }
+
+    /**
+     * expandSearch 의 폭 탐색 방법.
+     * LINEAR : initialWidth 부터 20px 씩 늘리며 매번 OCR (기존 방식)
+     * BISECT : 큰 간격으로 통과 구간을 찾은 뒤 이분 탐색으로 통과하는 최소 폭을 찾음
+     */
+    public enum ExpandStrategy {
+        LINEAR, BISECT
+    }
+
+    private final TesseractPool tesseractPool;
+    private final MeterRegistry meterRegistry;
+    private final LocatorMode locatorMode;
+    private final ExpandStrategy expandStrategy;
+    private final DistributionSummary foundCalls;
+    private final DistributionSummary missedCalls;
+    private final long budgetMaxCalls;
+    private final Duration budgetMaxTime;
+    private final boolean probe;
+    // 모든 calibration 의 밴드가 나눠 쓰는 스레드. async / sync 와 상관없이 calibration OCR 동시 실행 수의 상한
+    private final ThreadPoolExecutor bandExecutor;
+
+    public DynamicTextRegionFinder(TesseractPool tesseractPool,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${ocr.calibration.locator:WORD_BOX}") LocatorMode locatorMode,
+                                   @Value("${ocr.calibration.expand-strategy:BISECT}") ExpandStrategy expandStrategy,
+                                   @Value("${ocr.calibration.budget.max-calls:300}") long budgetMaxCalls,
+                                   @Value("${ocr.calibration.budget.max-time:5s}") Duration budgetMaxTime,
+                                   @Value("${ocr.calibration.probe:true}") boolean probe,
+                                   @Value("${ocr.calibration.band-threads:2}") int bandThreads) {
+        this.tesseractPool = tesseractPool;
+        this.meterRegistry = meterRegistry;
+        this.locatorMode = locatorMode;
+        this.expandStrategy = expandStrategy;
+        this.budgetMaxCalls = budgetMaxCalls;
+        this.budgetMaxTime = budgetMaxTime;
+        this.probe = probe;
+        this.foundCalls = ocrCallsSummary(meterRegistry, "found");
+        this.missedCalls = ocrCallsSummary(meterRegistry, "missed");
+        int threads = Math.max(1, bandThreads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // 밴드는 calibration 당 5개뿐이고 호출한 쪽이 끝날 때까지 기다리므로 큐는 제한하지 않음
+        this.bandExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "calibration-band-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private DistributionSummary ocrCallsSummary(MeterRegistry meterRegistry, String outcome) {
+        return DistributionSummary.builder("ocr.calibration.player.calls")
+                .description("OCR calls spent locating one player")
+                .tag("locator", locatorMode.name())
+                .tag("strategy", expandStrategy.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public PlayerLayout findDynamicRegions(BufferedImage image, PlayerLayout existPlayer) throws TesseractException {
+        return findDynamicRegions(image, existPlayer, new LongAdder());
+    }
+
+    /**
+     * @param ocrCalls 이번 calibration 에서 실행한 OCR 횟수를 더해 줄 카운터
+     */
+    public PlayerLayout findDynamicRegions(BufferedImage image, PlayerLayout existPlayer, LongAdder ocrCalls) throws TesseractException {
+        try (OcrFrame frame = OcrFrame.of(image)) {
+            return findDynamicRegions(frame, existPlayer, ocrCalls);
+        }
+    }
+
+    public PlayerLayout findDynamicRegions(OcrFrame image, PlayerLayout existPlayer, LongAdder ocrCalls) throws TesseractException {
+        return findDynamicRegions(image, existPlayer, Set.of(), ocrCalls);
+    }
+
+    /**
+     * 모든 OCR 이 같은 프레임 버퍼에 사각형만 바꿔서 실행되므로 창을 옮길 때마다 이미지를 다시 변환하지 않는다.
+     *
+     * @param skipIndices 이미 좌표가 있는 index 외에 이번에 찾지 않을 index (재시도 대기 중인 빈 자리 등)
+     */
+    public PlayerLayout findDynamicRegions(OcrFrame image, PlayerLayout existPlayer, Set<Integer> skipIndices, LongAdder ocrCalls) throws TesseractException {
+        return findDynamicRegions(image, existPlayer, skipIndices, newBudget(), ocrCalls);
+    }
+
+    /**
+     * 설정(ocr.calibration.budget)대로 calibration 한 번의 예산을 만든다.
+     */
+    public CalibrationBudget newBudget() {
+        return new CalibrationBudget(budgetMaxCalls, budgetMaxTime);
+    }
+
+    /**
+     * 밴드는 ocr.calibration.band-threads 개의 스레드에서 실행하고, 모든 밴드가 끝난 뒤에 돌려준다
+     * (호출한 쪽이 image 를 닫으므로 남아서 도는 밴드가 없어야 함).
+     * budget 을 다 쓰면 모든 밴드가 다음 OCR 전에 멈추고, 그때까지 찾은 플레이어만 돌려준다.
+     */
+    public PlayerLayout findDynamicRegions(OcrFrame image, PlayerLayout existPlayer, Set<Integer> skipIndices, CalibrationBudget budget, LongAdder ocrCalls) throws TesseractException {
+        BitSet knownIndices = new BitSet(PlayerLayout.SEATS + 1);
+        skipIndices.forEach(knownIndices::set);
+        existPlayer.forEach(player -> knownIndices.set(player.getIndex()));
         int imageWidth = image.getWidth();
         int imageHeight = image.getHeight();
         int centerX = imageWidth / 2;
 
-        return Arrays.stream(Y_RATIOS)
-                .boxed()
-                .parallel()
-                .flatMap(yRatio -> processYRatio(image, imageWidth, imageHeight, centerX, yRatio, existPlayer))
-                .collect(Collectors.toCollection(CopyOnWriteArrayList::new));
+        // 밴드마다 자기 묶음에 모은 뒤 합침 (밴드끼리 자리가 겹치지 않음)
+        List<Future<PlayerLayout>> bands = new ArrayList<>(Y_RATIOS.length);
+        for (double yRatio : Y_RATIOS) {
+            bands.add(bandExecutor.submit(() -> processYRatio(image, imageWidth, imageHeight, centerX, yRatio, knownIndices, budget, ocrCalls)));
+        }
+        PlayerLayout found = new PlayerLayout();
+        boolean interrupted = false;
+        for (Future<PlayerLayout> band : bands) {
+            // 인터럽트되면 밴드를 다음 OCR 전에 멈추게 하고, 이미 시작한 밴드가 image 를 쓰고 있으므로 끝날 때까지 기다림
+            while (true) {
+                try {
+                    found.addAll(band.get());
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    budget.cancel();
+                } catch (ExecutionException e) {
+                    LOGGER.error("calibration band failed : {}", e.getCause().toString());
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (budget.isExhausted()) {
+            meterRegistry.counter("ocr.calibration.budget.exhausted", "reason", budget.exhaustedReason().name().toLowerCase(Locale.ROOT)).increment();
+            LOGGER.info("calibration budget exhausted ({}), returning {} players found so far", budget.exhaustedReason(), found.size());
+        }
+        return found;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bandExecutor.shutdownNow();
     }
 
-    private Stream<Player> processYRatio(BufferedImage image, int imageWidth, int imageHeight, int centerX, double yRatio, List<Player> existPlayer) {
-        List<Player> localPlayers = new ArrayList<>();
+    private PlayerLayout processYRatio(OcrFrame image, int imageWidth, int imageHeight, int centerX, double yRatio, BitSet knownIndices, CalibrationBudget budget, LongAdder ocrCalls) {
+        PlayerLayout localPlayers = new PlayerLayout();
+        if (budget.isExhausted()) {
+            // 다른 밴드가 이미 예산을 다 씀
+            return localPlayers;
+        }
+        BandEngines engines = new BandEngines();
         try {
             int y = (int) (yRatio * imageHeight);
             int height = (int) (HEIGHT_RATIO * imageHeight);
-            ITesseract tesseract = initializeTesseract();
+            engines.line = tesseractPool.borrow(OcrEngineConfig.SINGLE_LINE);
 
             if (yRatio != 0.94) {
-                processLeftAndRightPlayers(image, imageWidth, centerX, yRatio, y, height, tesseract, localPlayers, existPlayer);
+                processLeftAndRightPlayers(image, imageWidth, centerX, yRatio, y, height, engines, localPlayers, knownIndices, budget, ocrCalls);
             } else {
-                processCenterPlayer(image, centerX, y, height, tesseract, localPlayers, existPlayer);
+                processCenterPlayer(image, centerX, yRatio, y, height, engines, localPlayers, knownIndices, budget, ocrCalls);
             }
+        } catch (CalibrationBudget.ExhaustedException e) {
+            LOGGER.debug("yRatio {} stopped : {}", yRatio, e.getMessage());
         } catch (TesseractException e) {
             LOGGER.error("Error processing yRatio {}: {}", yRatio, e.getMessage(), e);
+        } finally {
+            engines.release();
         }
 
         LOGGER.info("Players found for yRatio ({}): {}", yRatio, localPlayers);
-        return localPlayers.stream();
-    }
-
-    private ITesseract initializeTesseract() {
-        ITesseract tesseract = new Tesseract();
-        tesseract.setPageSegMode(7);
-        tesseract.setOcrEngineMode(1);
-        tesseract.setLanguage("kor+eng");
-        return tesseract;
+        return localPlayers;
     }
 
     private int getLeftIndex(double yRatio) {
@@ -97,30 +248,53 @@ public class DynamicTextRegionFinder {
         return 0;
     }
 
-    private void processCenterPlayer(BufferedImage image, int centerX, int y, int height, ITesseract tesseract, List<Player> localPlayers, List<Player> existPlayer) throws TesseractException {
+    private void processCenterPlayer(OcrFrame image, int centerX, double yRatio, int y, int height, BandEngines engines, PlayerLayout localPlayers, BitSet knownIndices, CalibrationBudget budget, LongAdder ocrCalls) throws TesseractException {
         int centerIndex = 8;
-        Player centerPlayer = existPlayer(existPlayer, centerIndex) ? null : findPlayer(centerIndex, image, 0, centerX, y, height, tesseract, true);
+        Player centerPlayer = knownIndices.get(centerIndex) ? null : findPlayer(centerIndex, yRatio, image, 0, centerX, y, height, engines, true, budget, ocrCalls);
         if (centerPlayer != null) localPlayers.add(centerPlayer);
     }
 
 
-    private void processLeftAndRightPlayers(BufferedImage image, int imageWidth, int centerX, double yRatio, int y, int height, ITesseract tesseract, List<Player> localPlayers, List<Player> existPlayer) throws TesseractException {
+    private void processLeftAndRightPlayers(OcrFrame image, int imageWidth, int centerX, double yRatio, int y, int height, BandEngines engines, PlayerLayout localPlayers, BitSet knownIndices, CalibrationBudget budget, LongAdder ocrCalls) throws TesseractException {
         int leftIndex = getLeftIndex(yRatio);
         int rightIndex = getRightIndex(yRatio);
         int minStartWidth = getMinStartWidth(yRatio, imageWidth);
 
-        Player leftPlayer = existPlayer(existPlayer, leftIndex) ? null : findPlayer(leftIndex, image, 0, centerX - minStartWidth, y, height, tesseract, true);
-        Player rightPlayer = existPlayer(existPlayer, rightIndex) ? null : findPlayer(rightIndex, image, centerX + minStartWidth, imageWidth, y, height, tesseract, false);
-
+        // 오른쪽을 찾다가 예산이 떨어져도 먼저 찾은 왼쪽은 결과에 남김
+        Player leftPlayer = knownIndices.get(leftIndex) ? null : findPlayer(leftIndex, yRatio, image, 0, centerX - minStartWidth, y, height, engines, true, budget, ocrCalls);
         if (leftPlayer != null) localPlayers.add(leftPlayer);
+        Player rightPlayer = knownIndices.get(rightIndex) ? null : findPlayer(rightIndex, yRatio, image, centerX + minStartWidth, imageWidth, y, height, engines, false, budget, ocrCalls);
         if (rightPlayer != null) localPlayers.add(rightPlayer);
     }
 
-    private boolean existPlayer(List<Player> existPlayer, int index) {
-        return existPlayer.stream().anyMatch(p -> p.getIndex() == index);
+    private Player findPlayer(int index, double yRatio, OcrFrame image, int startX, int endX, int y, int height, BandEngines engines, boolean isLeft, CalibrationBudget budget, LongAdder ocrCalls) throws TesseractException {
+        long callsBefore = engines.callCount();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Player player = null;
+        boolean completed = false;
+        try {
+            player = locatorMode == LocatorMode.WORD_BOX
+                    ? locatePlayer(index, image, startX, endX, y, height, engines.line, isLeft, budget)
+                    : scanPlayer(index, image, startX, endX, y, height, engines, isLeft, budget);
+            completed = true;
+        } finally {
+            sample.stop(Timer.builder("ocr.calibration")
+                    .description("Time spent locating one player region")
+                    .tag("y_ratio", String.valueOf(yRatio))
+                    .tag("side", index == 8 ? "center" : isLeft ? "left" : "right")
+                    .register(meterRegistry));
+            meterRegistry.counter("ocr.calibration.result",
+                    "index", String.valueOf(index), "outcome", player != null ? "found" : completed ? "missed" : "aborted").increment();
+            // 중단된 경우에도 이미 실행한 OCR 은 셈
+            ocrCalls.add(engines.callCount() - callsBefore);
+        }
+        long calls = engines.callCount() - callsBefore;
+        (player != null ? foundCalls : missedCalls).record(calls);
+        LOGGER.info("[findPlayer{}] index ({}) {} after {} OCR calls", isLeft ? "Left" : "Right", index, player != null ? "located" : "not found", calls);
+        return player;
     }
 
-    private Player findPlayer(int index, BufferedImage image, int startX, int endX, int y, int height, ITesseract tesseract, boolean isLeft) throws TesseractException {
+    private Player scanPlayer(int index, OcrFrame image, int startX, int endX, int y, int height, BandEngines engines, boolean isLeft, CalibrationBudget budget) throws TesseractException {
         int stepSize = 20;
         double minWidthRatio = index == 8? MIN_WIDTH_RATIO + 0.05 : MIN_WIDTH_RATIO;
         int initialWidth = (int) (image.getWidth() * minWidthRatio);
@@ -129,51 +303,153 @@ public class DynamicTextRegionFinder {
 
         for (int x = startX; isLeft ? x < endX : x + initialWidth <= endX; x += stepSize) {
             Rectangle rect = new Rectangle(x, y, initialWidth, height);
-            String result = tesseract.doOCR(image, rect).trim();
-            LOGGER.info("[findPlayer{}] text of index ({}) : {}", isLeft ? "Left" : "Right", index, result);
+            // 창은 닉네임(영문) 이나 금액(숫자) 으로 시작해야 하므로 가벼운 설정으로 먼저 거르고, 통과한 창만 kor+eng 로 읽음
+            if (probe) {
+                budget.spend();
+                String probeText = engines.probe(isLeft).doOCR(image, rect).trim();
+                if (!startPattern.matcher(probeText).find()) {
+                    continue;
+                }
+            }
+            budget.spend();
+            String result = engines.line.doOCR(image, rect).trim();
+            LOGGER.debug("[findPlayer{}] text of index ({}) : {}", isLeft ? "Left" : "Right", index, result);
 
             if ((isLeft && startPattern.matcher(result).find() && result.contains("백")) || ((!isLeft && startPattern.matcher(result).find()) && MID_PATTERN.matcher(result).find())) {
-                LOGGER.info("start Found");
-                return expandSearch(image, x, y, height, initialWidth, startPattern, endPattern, tesseract, index, isLeft, endX);
+                LOGGER.debug("start Found");
+                return expandSearch(image, x, y, height, initialWidth, startPattern, endPattern, engines.line, index, isLeft, endX, budget);
             }
         }
         return null;
     }
 
-    private Player expandSearch(BufferedImage image, int x, int y, int height, int initialWidth, Pattern startPattern, Pattern endPattern, ITesseract tesseract, int index, boolean isLeft, int endX) throws TesseractException {
+    private Player locatePlayer(int index, OcrFrame image, int startX, int endX, int y, int height, OcrEngine tesseract, boolean isLeft, CalibrationBudget budget) throws TesseractException {
+        Rectangle band = new Rectangle(startX, y, endX - startX, height);
+        budget.spend();
+        List<Word> words = new ArrayList<>(tesseract.getWords(image, band, ITessAPI.TessPageIteratorLevel.RIL_WORD));
+        words.sort(Comparator.comparingInt(word -> word.getBoundingBox().x));
+        LOGGER.debug("[locatePlayer{}] words of index ({}) : {}", isLeft ? "Left" : "Right", index, words.stream().map(Word::getText).toList());
+
+        Pattern startPattern = isLeft ? START_PATTERN_LEFT : START_PATTERN_RIGHT;
+        Pattern endPattern = isLeft ? END_PATTERN_LEFT : END_PATTERN_RIGHT;
+        int maxWidth = (int) (image.getWidth() * MAX_WIDTH_RATIO);
+        int padding = height / 2;
+
+        for (int first = 0; first < words.size(); first++) {
+            if (!startPattern.matcher(OcrPostProcessor.process(words.get(first).getText())).find()) {
+                continue;
+            }
+            int left = words.get(first).getBoundingBox().x;
+            StringBuilder joined = new StringBuilder();
+            for (int last = first; last < words.size(); last++) {
+                Rectangle box = words.get(last).getBoundingBox();
+                if (box.x + box.width - left > maxWidth) {
+                    break;
+                }
+                String token = OcrPostProcessor.process(words.get(last).getText());
+                String text = OcrPostProcessor.process(joined.append(token).append(' ').toString());
+
+                // 왼쪽은 "버" 로 끝나야 하고, 오른쪽은 "버" 뒤의 닉네임 단어에서 끝나야 함
+                if (MID_PATTERN.matcher(text).find()
+                        && (isLeft ? endPattern.matcher(text).find() : endPattern.matcher(token).matches())) {
+                    int x = Math.max(startX, left - padding);
+                    int right = Math.min(endX, box.x + box.width + padding);
+                    LOGGER.info("[locatePlayer{}] located index ({}) : {}", isLeft ? "Left" : "Right", index, text);
+                    return new Player(index, (double) x / image.getWidth(), (double) y / image.getHeight(), (double) (right - x) / image.getWidth(), HEIGHT_RATIO);
+                }
+            }
+        }
+        return null;
+    }
+
+    private Player expandSearch(OcrFrame image, int x, int y, int height, int initialWidth, Pattern startPattern, Pattern endPattern, OcrEngine tesseract, int index, boolean isLeft, int endX, CalibrationBudget budget) throws TesseractException {
+        if (expandStrategy == ExpandStrategy.BISECT) {
+            return bisectSearch(image, x, y, height, initialWidth, startPattern, endPattern, tesseract, index, isLeft, endX, budget);
+        }
+
         int width = initialWidth;
-        int expandWidth = 20;
         while (isLeft ? x + width <= endX : x + width <= image.getWidth()) {
-            Rectangle rect = new Rectangle(x, y, width, height);
-            String text = tesseract.doOCR(image, rect).trim();
-            LOGGER.info("[expandSearch{}] Expanded text of index ({}) : {}", isLeft ? "Left" : "Right", index, text);
-            var result = OcrPostProcessor.process(text);
-            LOGGER.info("[expandSearch{}] Expanded result of index ({}) : {}", isLeft ? "Left" : "Right", index, result);
-
-            var hasNextSameLastChar = false;
-            if (!isLeft) {
-                Rectangle nextRect = new Rectangle(x, y, width + expandWidth, height);
-                String nextText = tesseract.doOCR(image, nextRect).trim();
-                var nextResult = OcrPostProcessor.process(nextText);
-                hasNextSameLastChar = hasSameLastSecondChar(result, nextResult);
-            }
-
-            if (startPattern.matcher(result).find() // 시작 패턴도 만족하면서
-                    && (((isLeft && endPattern.matcher(result).find()) && MID_PATTERN.matcher(result).find()) // 왼쪽 종료패턴이나
-                    || (!isLeft && endPattern.matcher(result).find()) && hasNextSameLastChar)) { // 오른쪽 종료 패턴을 만족해야함 & 다음 텍스트와 마지막 문자가 같아야 함
-                double xRatio = (double) x / image.getWidth();
-                double widthRatio = (double) width / image.getWidth();
-                return new Player(index, xRatio, (double) y / image.getHeight(), widthRatio, HEIGHT_RATIO);
+            if (isExpandedMatch(image, x, y, width, height, startPattern, endPattern, tesseract, index, isLeft, budget)) {
+                return toPlayer(index, image, x, y, width);
             } else if (width > image.getWidth() * MAX_WIDTH_RATIO) {
                 LOGGER.info("[expandSearch{}] Expanded search fail of index ({})", isLeft ? "Left" : "Right", index);
                 return null;
             }
 
-            width += expandWidth;
+            width += EXPAND_WIDTH;
         }
         return null;
     }
 
+    /**
+     * LINEAR 와 같은 후보 폭(initialWidth + k * 20) 중 종료 패턴을 통과하는 최소 폭을 찾는다.
+     * 폭이 넓어질수록 통과한다고 가정하고, COARSE_EXPAND_STEPS 간격으로 통과 구간을 찾은 뒤 이분 탐색한다.
+     */
+    private Player bisectSearch(OcrFrame image, int x, int y, int height, int initialWidth, Pattern startPattern, Pattern endPattern, OcrEngine tesseract, int index, boolean isLeft, int endX, CalibrationBudget budget) throws TesseractException {
+        // LINEAR 가 OCR 해 볼 마지막 후보 (MAX_WIDTH_RATIO 를 처음 넘는 폭까지)
+        int limitX = isLeft ? endX : image.getWidth();
+        int lastStep = -1;
+        for (int step = 0; x + initialWidth + step * EXPAND_WIDTH <= limitX; step++) {
+            lastStep = step;
+            if (initialWidth + step * EXPAND_WIDTH > image.getWidth() * MAX_WIDTH_RATIO) {
+                break;
+            }
+        }
+
+        int failStep = -1;
+        int passStep = -1;
+        for (int step = 0; step <= lastStep; step = step == lastStep ? lastStep + 1 : Math.min(step + COARSE_EXPAND_STEPS, lastStep)) {
+            if (isExpandedMatch(image, x, y, initialWidth + step * EXPAND_WIDTH, height, startPattern, endPattern, tesseract, index, isLeft, budget)) {
+                passStep = step;
+                break;
+            }
+            failStep = step;
+        }
+        if (passStep < 0) {
+            LOGGER.info("[expandSearch{}] Expanded search fail of index ({})", isLeft ? "Left" : "Right", index);
+            return null;
+        }
+
+        while (passStep - failStep > 1) {
+            int midStep = (failStep + passStep) >>> 1;
+            if (isExpandedMatch(image, x, y, initialWidth + midStep * EXPAND_WIDTH, height, startPattern, endPattern, tesseract, index, isLeft, budget)) {
+                passStep = midStep;
+            } else {
+                failStep = midStep;
+            }
+        }
+        return toPlayer(index, image, x, y, initialWidth + passStep * EXPAND_WIDTH);
+    }
+
+    private boolean isExpandedMatch(OcrFrame image, int x, int y, int width, int height, Pattern startPattern, Pattern endPattern, OcrEngine tesseract, int index, boolean isLeft, CalibrationBudget budget) throws TesseractException {
+        Rectangle rect = new Rectangle(x, y, width, height);
+        budget.spend();
+        String text = tesseract.doOCR(image, rect).trim();
+        LOGGER.debug("[expandSearch{}] Expanded text of index ({}) : {}", isLeft ? "Left" : "Right", index, text);
+        var result = OcrPostProcessor.process(text);
+        LOGGER.debug("[expandSearch{}] Expanded result of index ({}) : {}", isLeft ? "Left" : "Right", index, result);
+
+        if (!startPattern.matcher(result).find() || !endPattern.matcher(result).find()) { // 시작 패턴과 종료 패턴을 모두 만족해야함
+            return false;
+        }
+        if (isLeft) {
+            return MID_PATTERN.matcher(result).find(); // 왼쪽은 중간 패턴까지
+        }
+
+        // 오른쪽은 다음 텍스트와 마지막 문자가 같아야 함 (패턴을 통과했을 때만 한 번 더 OCR)
+        Rectangle nextRect = new Rectangle(x, y, width + EXPAND_WIDTH, height);
+        budget.spend();
+        String nextText = tesseract.doOCR(image, nextRect).trim();
+        var nextResult = OcrPostProcessor.process(nextText);
+        return hasSameLastSecondChar(result, nextResult);
+    }
+
+    private Player toPlayer(int index, OcrFrame image, int x, int y, int width) {
+        double xRatio = (double) x / image.getWidth();
+        double widthRatio = (double) width / image.getWidth();
+        return new Player(index, xRatio, (double) y / image.getHeight(), widthRatio, HEIGHT_RATIO);
+    }
+
     public static boolean hasSameLastSecondChar(String str1, String str2) {
         if (str1.isEmpty() || str2.isEmpty()) {
             return false;
@@ -181,6 +457,49 @@ public class DynamicTextRegionFinder {
         return str1.charAt(str1.length() - 2) == str2.charAt(str2.length() - 2);
     }
 
+    /**
+     * 밴드 하나가 쓰는 엔진. kor+eng 라인 엔진은 처음부터, eng / 숫자 probe 엔진은 처음 쓸 때 빌린다.
+     */
+    private final class BandEngines {
+        private OcrEngine line;
+        private OcrEngine eng;
+        private OcrEngine digits;
+        // probe 엔진을 빌릴 때의 누적 호출 수 (풀 엔진의 호출 수는 빌리기 전부터 쌓여 있음)
+        private long probeBase;
+
+        OcrEngine probe(boolean isLeft) throws TesseractException {
+            if (isLeft) {
+                if (eng == null) {
+                    eng = tesseractPool.borrow(OcrEngineConfig.ENG_LINE);
+                    probeBase += eng.getCallCount();
+                }
+                return eng;
+            }
+            if (digits == null) {
+                digits = tesseractPool.borrow(OcrEngineConfig.DIGITS_LINE);
+                probeBase += digits.getCallCount();
+            }
+            return digits;
+        }
+
+        long callCount() {
+            long calls = line.getCallCount() - probeBase;
+            if (eng != null) {
+                calls += eng.getCallCount();
+            }
+            if (digits != null) {
+                calls += digits.getCallCount();
+            }
+            return calls;
+        }
+
+        void release() {
+            tesseractPool.release(line);
+            tesseractPool.release(eng);
+            tesseractPool.release(digits);
+        }
+    }
+
     @ToString
     @Getter
     @Setter
@@ -205,13 +524,52 @@ public class DynamicTextRegionFinder {
         }
 
         public String getDisplayText(String recognizedText) {
-            var player = "[Player " + this.index + "] ";
-            if (Set.of(3,4,6,9).contains(this.index)
-                    && recognizedText.contains("백") && recognizedText.contains("버")
-                    && recognizedText.split("버").length > 1) {
-                return player + recognizedText.split("버")[1] + " " + addCommasToNumbers(recognizedText.split("백")[0]) + " WON";
+            StringBuilder display = new StringBuilder(recognizedText.length() + 24)
+                    .append("[Player ").append(this.index).append("] ");
+            int firstBer = recognizedText.indexOf('버');
+            int firstBaek = recognizedText.indexOf('백');
+            // 오른쪽 플레이어는 "버" 뒤의 닉네임을 금액 앞에 붙임 (split("버")[1] 과 같은 구간)
+            if (isRightSide(this.index) && firstBaek >= 0 && firstBer >= 0 && hasSegmentAfter(recognizedText, firstBer, '버')) {
+                int nextBer = recognizedText.indexOf('버', firstBer + 1);
+                display.append(recognizedText, firstBer + 1, nextBer >= 0 ? nextBer : recognizedText.length()).append(' ');
+                OcrPostProcessor.appendWithCommas(display, recognizedText, 0, firstBaek);
+                return display.append(" WON").toString();
+            }
+            String trimmed = trimAfterLastComma(recognizedText);
+            int baek = trimmed.indexOf('백');
+            OcrPostProcessor.appendWithCommas(display, trimmed, 0, baek >= 0 ? baek : trimmed.length());
+            return display.append(" WON").toString();
+        }
+
+        /**
+         * '백' 바로 앞 토큰이 숫자(와 콤마)로만 되어 있어야 금액으로 읽힌 것으로 본다.
+         * "player1 백" 처럼 닉네임의 숫자만 있는 경우는 세지 않는다.
+         */
+        public static boolean hasAmount(String recognizedText) {
+            int end = recognizedText.indexOf('백');
+            while (end > 0 && recognizedText.charAt(end - 1) == ' ') {
+                end--;
             }
-            return player + addCommasToNumbers(trimAfterLastComma(recognizedText).split("백")[0]) + " WON";
+            int start = end;
+            boolean digit = false;
+            while (start > 0 && (Character.isDigit(recognizedText.charAt(start - 1)) || recognizedText.charAt(start - 1) == ',')) {
+                digit |= Character.isDigit(recognizedText.charAt(--start));
+            }
+            return digit && (start == 0 || recognizedText.charAt(start - 1) == ' ');
+        }
+
+        private static boolean isRightSide(int index) {
+            return index == 3 || index == 4 || index == 6 || index == 9;
+        }
+
+        // split(delimiter).length > 1 과 같음 : 첫 구분자 뒤에 구분자가 아닌 문자가 남아 있는지
+        private static boolean hasSegmentAfter(String text, int delimiterIndex, char delimiter) {
+            for (int i = delimiterIndex + 1; i < text.length(); i++) {
+                if (text.charAt(i) != delimiter) {
+                    return true;
+                }
+            }
+            return false;
         }
     }
 
@@ -224,19 +582,8 @@ public class DynamicTextRegionFinder {
     }
 
     public static String addCommasToNumbers(String input) {
-        NumberFormat numberFormat = NumberFormat.getNumberInstance(Locale.US);
-
-        Pattern pattern = Pattern.compile("\\d+,?\\d*");
-        Matcher matcher = pattern.matcher(input);
-
-        StringBuilder result = new StringBuilder();
-        while (matcher.find()) {
-            String number = matcher.group().replaceAll(",", "");
-            String formattedNumber = numberFormat.format(Long.parseLong(number));
-            matcher.appendReplacement(result, formattedNumber);
-        }
-        matcher.appendTail(result);
-
+        StringBuilder result = new StringBuilder(input.length() + 8);
+        OcrPostProcessor.appendWithCommas(result, input, 0, input.length());
         return result.toString();
     }
 }
\ No newline at end of file
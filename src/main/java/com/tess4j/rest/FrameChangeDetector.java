@@ -0,0 +1,152 @@
+package com.tess4j.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자별로 직전 프레임의 영역 시그니처(2px 셀 단위 휘도 격자)와 OCR 결과를 기억해 두고,
+ * 영역 픽셀이 거의 그대로면 Tesseract 를 다시 호출하지 않고 이전 결과를 재사용하게 한다.
+ * 셀이 글자 획보다 작아야 금액 숫자 하나가 바뀐 것도 잡히므로 셀 하나라도 tolerance 를 넘으면 바뀐 것으로 본다.
+ */
+@Component
+public class FrameChangeDetector {
+    // 템플릿 비교({@link TotalScreenGate})용 거친 격자
+    private static final int GRID_COLUMNS = 32;
+    private static final int GRID_ROWS = 8;
+    // 변경 감지용 격자. 셀은 CELL_SIZE px 이고, 큰 영역은 셀 수를 제한해 사용자당 메모리를 묶어 둔다
+    private static final int CELL_SIZE = 2;
+    private static final int MAX_DETAIL_COLUMNS = 128;
+    private static final int MAX_DETAIL_ROWS = 24;
+
+    private final boolean enabled;
+    private final int tolerance;
+    private final Map<String, Map<String, Entry>> frames;
+    private final Counter reused;
+    private final Counter changed;
+
+    public FrameChangeDetector(@Value("${ocr.frame-diff.enabled:true}") boolean enabled,
+                               @Value("${ocr.frame-diff.tolerance:12}") int tolerance,
+                               @Value("${ocr.frame-diff.max-users:1000}") int maxUsers,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.tolerance = tolerance;
+        this.frames = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, Entry>> eldest) {
+                return size() > maxUsers;
+            }
+        });
+        this.reused = meterRegistry.counter("ocr.frame.diff", "outcome", "reused");
+        this.changed = meterRegistry.counter("ocr.frame.diff", "outcome", "changed");
+    }
+
+    /**
+     * 영역의 현재 시그니처를 계산한다. regionKey 는 사용자 안에서 영역을 구분하는 이름 (예: "check", "player-3").
+     */
+    public Snapshot capture(String userId, String regionKey, BufferedImage image, Rectangle region) {
+        if (!enabled) {
+            return new Snapshot(null, regionKey, region, null, null);
+        }
+        Map<String, Entry> regions = frames.computeIfAbsent(userId, key -> new ConcurrentHashMap<>());
+        byte[] signature = detail(image, region);
+        Entry last = regions.get(regionKey);
+        Tess4jV1.TextWithCoordinates previous = null;
+        if (last != null && last.region.equals(region) && isSimilar(last.signature, signature)) {
+            previous = last.result;
+            reused.increment();
+        } else {
+            changed.increment();
+        }
+        return new Snapshot(regions, regionKey, region, signature, previous);
+    }
+
+    public void forget(String userId) {
+        frames.remove(userId);
+    }
+
+    private boolean isSimilar(byte[] a, byte[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (Math.abs((a[i] & 0xFF) - (b[i] & 0xFF)) > tolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 영역 모양 비교용 32x8 평균 휘도 격자.
+     */
+    static byte[] signature(BufferedImage image, Rectangle region) {
+        return signature(image, region, GRID_COLUMNS, GRID_ROWS);
+    }
+
+    /**
+     * 변경 감지용 격자. 같은 크기의 영역이면 항상 같은 길이가 나온다.
+     */
+    static byte[] detail(BufferedImage image, Rectangle region) {
+        int columns = Math.max(1, Math.min(MAX_DETAIL_COLUMNS, region.width / CELL_SIZE));
+        int rows = Math.max(1, Math.min(MAX_DETAIL_ROWS, region.height / CELL_SIZE));
+        return signature(image, region, columns, rows);
+    }
+
+    private static byte[] signature(BufferedImage image, Rectangle region, int columns, int rows) {
+        int[] sums = new int[columns * rows];
+        int[] counts = new int[columns * rows];
+        int[] row = new int[region.width];
+        for (int py = 0; py < region.height; py++) {
+            image.getRGB(region.x, region.y + py, region.width, 1, row, 0, region.width);
+            int cellRow = py * rows / region.height * columns;
+            for (int px = 0; px < region.width; px++) {
+                int rgb = row[px];
+                int luma = (((rgb >> 16) & 0xFF) * 77 + ((rgb >> 8) & 0xFF) * 150 + (rgb & 0xFF) * 29) >> 8;
+                int cell = cellRow + px * columns / region.width;
+                sums[cell] += luma;
+                counts[cell]++;
+            }
+        }
+        byte[] signature = new byte[sums.length];
+        for (int i = 0; i < sums.length; i++) {
+            signature[i] = (byte) (counts[i] == 0 ? 0 : sums[i] / counts[i]);
+        }
+        return signature;
+    }
+
+    private record Entry(Rectangle region, byte[] signature, Tess4jV1.TextWithCoordinates result) {
+    }
+
+    public static final class Snapshot {
+        private final Map<String, Entry> regions;
+        private final String regionKey;
+        private final Rectangle region;
+        private final byte[] signature;
+        private final Tess4jV1.TextWithCoordinates previous;
+
+        private Snapshot(Map<String, Entry> regions, String regionKey, Rectangle region, byte[] signature, Tess4jV1.TextWithCoordinates previous) {
+            this.regions = regions;
+            this.regionKey = regionKey;
+            this.region = region;
+            this.signature = signature;
+            this.previous = previous;
+        }
+
+        /** 영역이 바뀌지 않았으면 직전 결과, 바뀌었으면 null */
+        public Tess4jV1.TextWithCoordinates previous() {
+            return previous;
+        }
+
+        public void remember(Tess4jV1.TextWithCoordinates result) {
+            if (regions != null) {
+                regions.put(regionKey, new Entry(region, signature, result));
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.tess4j.rest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 프레임마다 한 번 OCR 용 8bit 그레이 이미지를 만든다 (선택적으로 확대, Otsu 이진화).
+ * check / 플레이어 OCR 은 이 이미지에서 자기 영역만 엔진 버퍼로 옮기고, 창을 옮기며 여러 번 OCR 하는 calibration 만
+ * {@link #frame(Prepared)} 로 프레임 전체를 {@link OcrFrame} 에 한 번 옮겨 쓴다.
+ * 그레이는 ARGB 보다 버퍼가 1/3 이고, 변환은 프레임당 한 번만 일어난다.
+ */
+@Component
+public class FramePreprocessor {
+
+    /**
+     * NONE : 원본 그대로
+     * GRAY : 8bit 그레이
+     * BINARY : 그레이 + Otsu 이진화
+     */
+    public enum Mode {
+        NONE, GRAY, BINARY
+    }
+
+    private final Mode mode;
+    private final int scale;
+    private final Timer timer;
+    // 다 쓴 OcrFrame 의 direct 버퍼. 해상도가 같으면 다음 calibration 이 다시 씀
+    private final BlockingQueue<ByteBuffer> frameBuffers;
+
+    public FramePreprocessor(@Value("${ocr.preprocess.mode:GRAY}") Mode mode,
+                             @Value("${ocr.preprocess.scale:1}") int scale,
+                             @Value("${ocr.preprocess.pooled-frames:4}") int pooledFrames,
+                             MeterRegistry meterRegistry) {
+        this.mode = mode;
+        this.scale = Math.max(1, scale);
+        this.frameBuffers = new ArrayBlockingQueue<>(Math.max(1, pooledFrames));
+        this.timer = Timer.builder("ocr.preprocess")
+                .description("Per-frame grayscale / scale / binarize time")
+                .tag("mode", mode.name())
+                .register(meterRegistry);
+    }
+
+    public Prepared prepare(BufferedImage image) {
+        return timer.record(() -> {
+            BufferedImage prepared = mode == Mode.NONE ? image : toGray(image);
+            if (scale > 1) {
+                prepared = upscale(prepared, scale);
+            }
+            if (mode == Mode.BINARY) {
+                binarize(prepared);
+            }
+            return new Prepared(prepared, scale);
+        });
+    }
+
+    /**
+     * prepared 이미지 전체를 담은 OcrFrame. 다 쓰면 close 해야 버퍼가 다음 프레임에 다시 쓰인다.
+     */
+    public OcrFrame frame(Prepared prepared) {
+        return OcrFrame.of(prepared.image(), frameBuffers.poll(), frameBuffers::offer);
+    }
+
+    static BufferedImage toGray(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        BufferedImage gray = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] pixels = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                pixels[offset + x] = (byte) ((((rgb >> 16) & 0xFF) * 77 + ((rgb >> 8) & 0xFF) * 150 + (rgb & 0xFF) * 29) >> 8);
+            }
+        }
+        return gray;
+    }
+
+    private static BufferedImage upscale(BufferedImage image, int scale) {
+        int type = image.getType() == BufferedImage.TYPE_CUSTOM ? BufferedImage.TYPE_INT_RGB : image.getType();
+        BufferedImage scaled = new BufferedImage(image.getWidth() * scale, image.getHeight() * scale, type);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, scaled.getWidth(), scaled.getHeight(), null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * TYPE_BYTE_GRAY 이미지를 Otsu 임계값으로 0/255 로 바꾼다.
+     */
+    static void binarize(BufferedImage gray) {
+        byte[] pixels = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+        int threshold = otsuThreshold(pixels);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = (pixels[i] & 0xFF) > threshold ? (byte) 255 : 0;
+        }
+    }
+
+    static int otsuThreshold(byte[] pixels) {
+        long[] histogram = new long[256];
+        for (byte pixel : pixels) {
+            histogram[pixel & 0xFF]++;
+        }
+        long total = pixels.length;
+        double sum = 0;
+        for (int i = 0; i < 256; i++) {
+            sum += (double) i * histogram[i];
+        }
+
+        double sumBackground = 0;
+        long background = 0;
+        double bestVariance = -1;
+        int threshold = 0;
+        for (int t = 0; t < 256; t++) {
+            background += histogram[t];
+            if (background == 0) {
+                continue;
+            }
+            long foreground = total - background;
+            if (foreground == 0) {
+                break;
+            }
+            sumBackground += (double) t * histogram[t];
+            double meanBackground = sumBackground / background;
+            double meanForeground = (sum - sumBackground) / foreground;
+            double variance = (double) background * foreground * (meanBackground - meanForeground) * (meanBackground - meanForeground);
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                threshold = t;
+            }
+        }
+        return threshold;
+    }
+
+    /**
+     * OCR 에 넘길 이미지. 좌표는 원본 프레임 기준으로 주고받고, 확대한 경우 여기서만 배율을 곱한다.
+     * OCR 은 image 에 {@link #scale(Rectangle)} 한 사각형으로 한다.
+     */
+    public record Prepared(BufferedImage image, int scale) {
+
+        public Rectangle scale(Rectangle region) {
+            return new Rectangle(region.x * scale, region.y * scale, region.width * scale, region.height * scale);
+        }
+
+        public BufferedImage crop(Rectangle region) {
+            Rectangle scaled = scale(region);
+            return image.getSubimage(scaled.x, scaled.y, scaled.width, scaled.height);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.tess4j.rest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tess4j.rest.model.LayoutProfile;
+import com.tess4j.rest.repository.LayoutProfileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 화면 비율별 플레이어 좌표 프로필. 어떤 사용자가 calibration 으로 찾은 좌표를 비율별로 모아 두고,
+ * 같은 비율의 화면을 쓰는 다른 사용자는 스캔 없이 그 좌표를 바로 쓴다.
+ * 한 사용자의 오검출이 모두에게 퍼지지 않도록 여러 사용자가 비슷한 좌표를 찾은 자리만 프로필에 올리고,
+ * 프로필에서 받은 자리를 OCR 해 보고 금액이 읽히지 않으면 그 사용자에게는 더 주지 않고,
+ * 여러 사용자가 같은 자리를 거부했을 때만 프로필에서 뺀다.
+ */
+@Component
+public class LayoutProfileService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LayoutProfileService.class);
+
+    // 자리별로 들고 있을 후보 좌표 수. 넘치면 가장 오래된 후보를 버림
+    private static final int MAX_CANDIDATES = 8;
+
+    private final LayoutProfileRepository layoutProfileRepository;
+    private final boolean enabled;
+    private final int minUsers;
+    private final double tolerance;
+    private final Cache<String, Optional<LayoutProfile>> profiles;
+    // 비율별, 자리별로 아직 프로필에 오르지 않은 후보 좌표
+    private final Cache<String, Map<Integer, List<Candidate>>> candidates;
+    // 비율별, 자리별로 프로필 좌표를 거부한 사용자. 한 번의 오독이 쌓여 남지 않도록 reject-window 가 지나면 잊음
+    private final Cache<String, Map<Integer, Set<String>>> rejections;
+    private final Counter applied;
+    private final Counter learned;
+    private final Counter rejected;
+    private final Counter removed;
+
+    public LayoutProfileService(LayoutProfileRepository layoutProfileRepository,
+                                @Value("${ocr.layout-profile.enabled:true}") boolean enabled,
+                                @Value("${ocr.layout-profile.min-users:3}") int minUsers,
+                                @Value("${ocr.layout-profile.tolerance:0.01}") double tolerance,
+                                @Value("${ocr.layout-profile.reject-window:1d}") Duration rejectWindow,
+                                MeterRegistry meterRegistry) {
+        this.layoutProfileRepository = layoutProfileRepository;
+        this.enabled = enabled;
+        this.minUsers = Math.max(1, minUsers);
+        this.tolerance = tolerance;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(100)
+                .build();
+        this.candidates = Caffeine.newBuilder()
+                .maximumSize(100)
+                .build();
+        this.rejections = Caffeine.newBuilder()
+                .maximumSize(100)
+                .expireAfterWrite(rejectWindow)
+                .build();
+        this.applied = meterRegistry.counter("ocr.layout.profile", "outcome", "applied");
+        this.learned = meterRegistry.counter("ocr.layout.profile", "outcome", "learned");
+        this.rejected = meterRegistry.counter("ocr.layout.profile", "outcome", "rejected");
+        this.removed = meterRegistry.counter("ocr.layout.profile", "outcome", "removed");
+    }
+
+    /**
+     * players 에 없는 index 를 같은 비율 프로필의 좌표로 채운다. 채운 자리 번호를 돌려준다.
+     * 채운 자리는 OCR 결과를 보고 {@link #reject} 할 수 있도록 호출한 쪽이 기억해 둔다.
+     * userId 가 이미 거부한 자리는 채우지 않는다 (매 프레임 같은 자리를 다시 OCR 하지 않게).
+     */
+    public Set<Integer> complete(String userId, int width, int height, PlayerLayout players) {
+        if (!enabled) {
+            return Set.of();
+        }
+        String aspect = aspect(width, height);
+        Optional<LayoutProfile> profile = profile(aspect);
+        if (profile.isEmpty()) {
+            return Set.of();
+        }
+        Map<Integer, Set<String>> seats = rejections.getIfPresent(aspect);
+        Set<Integer> added = new HashSet<>();
+        for (DynamicTextRegionFinder.Player player : profile.get().getPlayers()) {
+            if (seats != null && rejectedBy(seats, player.getIndex(), userId)) {
+                continue;
+            }
+            if (players.add(player)) {
+                added.add(player.getIndex());
+            }
+        }
+        if (!added.isEmpty()) {
+            applied.increment(added.size());
+        }
+        return added;
+    }
+
+    /**
+     * calibration 으로 찾은 좌표를 후보로 모은다. 프로필에 없는 자리를 min-users 명 이상이
+     * 비슷한 좌표로 찾았을 때만 프로필에 올리고 저장한다.
+     */
+    public synchronized void learn(String userId, int width, int height, PlayerLayout players) {
+        if (!enabled || players.isEmpty()) {
+            return;
+        }
+        String aspect = aspect(width, height);
+        LayoutProfile profile = profile(aspect).orElseGet(() -> new LayoutProfile(aspect));
+        Map<Integer, List<Candidate>> seats = candidates.get(aspect, key -> new HashMap<>());
+        // 캐시된 프로필을 다른 요청이 읽고 있으므로 사본에 합쳐서 바꿔 끼움
+        PlayerLayout merged = profile.getPlayers().copy();
+        boolean promoted = false;
+        for (DynamicTextRegionFinder.Player player : players) {
+            int index = player.getIndex();
+            if (merged.contains(index)) {
+                continue;
+            }
+            List<Candidate> seat = seats.computeIfAbsent(index, key -> new ArrayList<>());
+            Candidate candidate = vote(seat, player, userId);
+            if (candidate.users.size() >= minUsers) {
+                merged.add(candidate.player);
+                seats.remove(index);
+                promoted = true;
+            }
+        }
+        if (!promoted) {
+            return;
+        }
+        profile.setPlayers(merged);
+        LayoutProfile saved = layoutProfileRepository.save(profile);
+        profiles.put(aspect, Optional.of(saved));
+        learned.increment();
+        LOGGER.info("layout profile {} : {} players", aspect, merged.size());
+    }
+
+    /**
+     * 프로필에서 받은 자리의 OCR 이 금액으로 읽히지 않았을 때 호출한다. 그 사용자에게는 이 자리를 더 주지 않고,
+     * reject-window 안에 min-users 명이 같은 자리를 거부하면 프로필에서 뺀다.
+     * 다시 올라가려면 처음부터 min-users 명이 찾아야 한다.
+     */
+    public synchronized void reject(String userId, int width, int height, int index) {
+        if (!enabled) {
+            return;
+        }
+        String aspect = aspect(width, height);
+        Optional<LayoutProfile> profile = profile(aspect);
+        if (profile.isEmpty() || !profile.get().getPlayers().contains(index)) {
+            return;
+        }
+        Map<Integer, Set<String>> seats = rejections.get(aspect, key -> new HashMap<>());
+        Set<String> users = seats.computeIfAbsent(index, key -> new HashSet<>());
+        if (!users.add(userId)) {
+            return;
+        }
+        rejected.increment();
+        if (users.size() < minUsers) {
+            LOGGER.info("layout profile {} : player {} rejected by {} ({}/{})", aspect, index, userId, users.size(), minUsers);
+            return;
+        }
+        seats.remove(index);
+        PlayerLayout remaining = profile.get().getPlayers().copy();
+        remaining.remove(index);
+        profile.get().setPlayers(remaining);
+        LayoutProfile saved = layoutProfileRepository.save(profile.get());
+        profiles.put(aspect, Optional.of(saved));
+        removed.increment();
+        LOGGER.warn("layout profile {} : player {} removed, {} players left", aspect, index, remaining.size());
+    }
+
+    private synchronized boolean rejectedBy(Map<Integer, Set<String>> seats, int index, String userId) {
+        Set<String> users = seats.get(index);
+        return users != null && users.contains(userId);
+    }
+
+    /**
+     * player 와 x, y 가 tolerance 안에 있는 후보에 userId 를 더한다. 없으면 새 후보를 만든다.
+     * 금액 길이에 따라 폭이 달라지므로 비교는 시작 좌표로만 하고, 크기는 가장 큰 값을 쓴다.
+     */
+    private Candidate vote(List<Candidate> seat, DynamicTextRegionFinder.Player player, String userId) {
+        for (Candidate candidate : seat) {
+            if (Math.abs(candidate.player.getX() - player.getX()) <= tolerance
+                    && Math.abs(candidate.player.getY() - player.getY()) <= tolerance) {
+                candidate.users.add(userId);
+                candidate.player = new DynamicTextRegionFinder.Player(player.getIndex(),
+                        candidate.player.getX(), candidate.player.getY(),
+                        Math.max(candidate.player.getWidthRatio(), player.getWidthRatio()),
+                        Math.max(candidate.player.getHeightRatio(), player.getHeightRatio()));
+                return candidate;
+            }
+        }
+        if (seat.size() >= MAX_CANDIDATES) {
+            seat.remove(0);
+        }
+        Candidate candidate = new Candidate(player, userId);
+        seat.add(candidate);
+        return candidate;
+    }
+
+    private Optional<LayoutProfile> profile(String aspect) {
+        return profiles.get(aspect, layoutProfileRepository::findByAspect);
+    }
+
+    static String aspect(int width, int height) {
+        return String.format(Locale.ROOT, "%.2f", (double) width / height);
+    }
+
+    /**
+     * 한 자리의 후보 좌표와 그 좌표를 찾은 사용자들. learn 의 synchronized 안에서만 고친다.
+     */
+    private static final class Candidate {
+        private DynamicTextRegionFinder.Player player;
+        private final Set<String> users = new HashSet<>();
+
+        private Candidate(DynamicTextRegionFinder.Player player, String userId) {
+            this.player = player;
+            users.add(userId);
+        }
+    }
+}
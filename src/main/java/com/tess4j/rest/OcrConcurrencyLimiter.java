@@ -0,0 +1,70 @@
+package com.tess4j.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시에 실행되는 Tesseract(native) 호출 수를 코어 수로 제한한다.
+ * 요청이 몰려도 OCR 은 코어 수만큼만 돌고, 나머지는 잠깐 기다리거나
+ * 대기열이 꽉 찼으면 바로 {@link OcrOverloadedException}(429) 로 거절된다.
+ */
+@Component
+public class OcrConcurrencyLimiter {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final int maxWaiting;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+
+    public OcrConcurrencyLimiter(@Value("${ocr.limiter.permits:0}") int permits,
+                                 @Value("${ocr.limiter.max-waiting:64}") int maxWaiting,
+                                 @Value("${ocr.limiter.max-wait:2s}") Duration maxWait,
+                                 MeterRegistry meterRegistry) {
+        // 0 이면 코어 수만큼
+        this.maxPermits = permits > 0 ? permits : Runtime.getRuntime().availableProcessors();
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxWaiting = maxWaiting;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.rejected = meterRegistry.counter("ocr.limiter.rejected");
+        Gauge.builder("ocr.limiter.permits", this.permits, p -> maxPermits - p.availablePermits())
+                .tag("state", "in_use")
+                .register(meterRegistry);
+        Gauge.builder("ocr.limiter.permits", this.permits, Semaphore::getQueueLength)
+                .tag("state", "waiting")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 허용 개수를 넘으면 max-wait 동안 기다린다. 대기 중인 호출이 max-waiting 개 이상이면 기다리지 않고 거절한다.
+     */
+    public void acquire() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (permits.getQueueLength() >= maxWaiting) {
+            rejected.increment();
+            throw new OcrOverloadedException("OCR queue is full (" + maxWaiting + " waiting)");
+        }
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new OcrOverloadedException("No OCR slot within " + Duration.ofNanos(maxWaitNanos).toMillis() + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OcrOverloadedException("Interrupted while waiting for an OCR slot");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
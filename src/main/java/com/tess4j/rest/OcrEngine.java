@@ -0,0 +1,233 @@
+package com.tess4j.rest;
+
+import com.sun.jna.Pointer;
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.TessAPI;
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+import net.sourceforge.tess4j.Word;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 한 번 초기화된 TessBaseAPI 핸들을 계속 재사용하는 엔진.
+ * Tesseract.doOCR 은 호출마다 init/dispose 로 traineddata 를 다시 읽기 때문에 직접 사용하지 않는다.
+ * 스레드 안전하지 않으므로 {@link TesseractPool} 에서 빌려 한 스레드에서만 사용한다.
+ */
+public final class OcrEngine implements AutoCloseable {
+
+    private final OcrEngineConfig config;
+    private final Handle handle;
+    private final OcrConcurrencyLimiter limiter;
+    private long callCount;
+
+    OcrEngine(OcrEngineConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * limiter 가 있으면 native 호출마다 {@link OcrConcurrencyLimiter} 의 허용을 받는다.
+     */
+    OcrEngine(OcrEngineConfig config, OcrConcurrencyLimiter limiter) {
+        this.config = config;
+        this.handle = new Handle(config);
+        this.limiter = limiter;
+    }
+
+    public OcrEngineConfig getConfig() {
+        return config;
+    }
+
+    /** 이 엔진으로 실행한 OCR 횟수 (limiter 에서 거절된 호출은 제외) */
+    public long getCallCount() {
+        return callCount;
+    }
+
+    public String doOCR(BufferedImage image) throws TesseractException {
+        return doOCR(image, null);
+    }
+
+    /**
+     * image 의 rect 영역만 복사해서 인식한다. 영역 하나만 OCR 하는 check / 플레이어 경로용.
+     */
+    public String doOCR(BufferedImage image, Rectangle rect) throws TesseractException {
+        acquire();
+        // limiter 가 거절한 호출은 세지 않음
+        callCount++;
+        try {
+            return handle.recognize(image, rect);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * 프레임 버퍼의 rect 영역을 인식한다. 직전 호출과 같은 프레임이면 SetImage 없이 사각형만 바꾼다.
+     * 한 프레임에 여러 사각형을 OCR 하는 calibration 용.
+     */
+    public String doOCR(OcrFrame frame, Rectangle rect) throws TesseractException {
+        acquire();
+        callCount++;
+        try {
+            return handle.recognize(frame, rect);
+        } finally {
+            release();
+        }
+    }
+
+    public List<Word> getWords(OcrFrame frame, Rectangle rect, int level) throws TesseractException {
+        acquire();
+        callCount++;
+        try {
+            return handle.words(frame, rect, level);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * rect 영역을 한 번 인식하고 level 단위 결과를 박스와 함께 돌려준다. 박스 좌표는 전체 이미지 기준이다.
+     */
+    public List<Word> getWords(BufferedImage image, Rectangle rect, int level) throws TesseractException {
+        acquire();
+        callCount++;
+        try {
+            return handle.words(image, rect, level);
+        } finally {
+            release();
+        }
+    }
+
+    private void acquire() {
+        if (limiter != null) {
+            limiter.acquire();
+        }
+    }
+
+    private void release() {
+        if (limiter != null) {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        handle.close();
+    }
+
+    private static final class Handle extends Tesseract {
+        // 마지막으로 SetImage 한 OcrFrame id (BufferedImage 영역을 넘긴 경우 -1)
+        private long frameId = -1;
+        // BufferedImage 영역을 옮겨 담는 버퍼. 엔진마다 하나를 계속 다시 씀
+        private ByteBuffer regionBuffer;
+
+        Handle(OcrEngineConfig config) {
+            setLanguage(config.language());
+            setPageSegMode(config.pageSegMode());
+            setOcrEngineMode(config.ocrEngineMode());
+            if (config.whitelist() != null) {
+                setVariable("tessedit_char_whitelist", config.whitelist());
+            }
+            init();
+            setVariables();
+        }
+
+        String recognize(BufferedImage image, Rectangle rect) {
+            selectRegion(image, rect);
+            return getOCRText(null, 1);
+        }
+
+        String recognize(OcrFrame frame, Rectangle rect) {
+            select(frame, rect);
+            return getOCRText(null, 1);
+        }
+
+        List<Word> words(BufferedImage image, Rectangle rect, int level) {
+            Rectangle region = selectRegion(image, rect);
+            return readWords(level, region.x, region.y);
+        }
+
+        List<Word> words(OcrFrame frame, Rectangle rect, int level) {
+            select(frame, rect);
+            return readWords(level, 0, 0);
+        }
+
+        /**
+         * rect 영역만 버퍼로 옮겨 SetImage 한다. 프레임 전체가 아니라 영역 크기만큼만 복사된다.
+         */
+        private Rectangle selectRegion(BufferedImage image, Rectangle rect) {
+            Rectangle bounds = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+            Rectangle region = rect == null ? bounds : rect.intersection(bounds);
+            int bytesPerPixel = OcrFrame.bytesPerPixel(image);
+            regionBuffer = OcrFrame.ensureCapacity(regionBuffer, region.width * region.height * bytesPerPixel);
+            OcrFrame.copy(image, region, regionBuffer);
+            getAPI().TessBaseAPISetImage(getHandle(), regionBuffer, region.width, region.height,
+                    bytesPerPixel, region.width * bytesPerPixel);
+            frameId = -1;
+            return region;
+        }
+
+        private void select(OcrFrame frame, Rectangle rect) {
+            TessAPI api = getAPI();
+            ITessAPI.TessBaseAPI handle = getHandle();
+            if (frame.getId() != frameId) {
+                // Tesseract 가 내부 Pix 로 복사하므로 프레임당 한 번만
+                api.TessBaseAPISetImage(handle, frame.getPixels(), frame.getWidth(), frame.getHeight(),
+                        frame.getBytesPerPixel(), frame.getBytesPerLine());
+                frameId = frame.getId();
+            }
+            if (rect == null) {
+                api.TessBaseAPISetRectangle(handle, 0, 0, frame.getWidth(), frame.getHeight());
+            } else {
+                api.TessBaseAPISetRectangle(handle, rect.x, rect.y, rect.width, rect.height);
+            }
+        }
+
+        /**
+         * offsetX/offsetY 는 SetImage 한 이미지의 원래 이미지 안 위치. 박스 좌표를 원래 이미지 기준으로 돌려준다.
+         */
+        private List<Word> readWords(int level, int offsetX, int offsetY) {
+            TessAPI api = getAPI();
+            ITessAPI.TessBaseAPI handle = getHandle();
+            api.TessBaseAPIRecognize(handle, null);
+            ITessAPI.TessResultIterator ri = api.TessBaseAPIGetIterator(handle);
+            if (ri == null) {
+                return List.of();
+            }
+
+            List<Word> words = new ArrayList<>();
+            IntBuffer left = IntBuffer.allocate(1);
+            IntBuffer top = IntBuffer.allocate(1);
+            IntBuffer right = IntBuffer.allocate(1);
+            IntBuffer bottom = IntBuffer.allocate(1);
+            try {
+                ITessAPI.TessPageIterator pi = api.TessResultIteratorGetPageIterator(ri);
+                api.TessPageIteratorBegin(pi);
+                do {
+                    Pointer ptr = api.TessResultIteratorGetUTF8Text(ri, level);
+                    if (ptr == null) {
+                        continue;
+                    }
+                    String text = ptr.getString(0, "UTF-8");
+                    api.TessDeleteText(ptr);
+                    float confidence = api.TessResultIteratorConfidence(ri, level);
+                    api.TessPageIteratorBoundingBox(pi, level, left, top, right, bottom);
+                    words.add(new Word(text, confidence, new Rectangle(offsetX + left.get(0), offsetY + top.get(0),
+                            right.get(0) - left.get(0), bottom.get(0) - top.get(0))));
+                } while (api.TessPageIteratorNext(pi, level) == ITessAPI.TRUE);
+            } finally {
+                api.TessResultIteratorDelete(ri);
+            }
+            return words;
+        }
+
+        void close() {
+            dispose();
+        }
+    }
+}
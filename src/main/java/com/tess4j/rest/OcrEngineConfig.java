@@ -0,0 +1,31 @@
+package com.tess4j.rest;
+
+/**
+ * Tesseract 엔진 설정 키. 같은 설정으로 초기화된 엔진끼리만 풀에서 공유한다.
+ * 영역에 나올 글자에 맞춰 가장 가벼운 설정을 고른다 : 한글 표시(백/실/버)가 있는 영역만 kor+eng,
+ * 영문 닉네임은 eng, 금액은 eng + 숫자 whitelist.
+ *
+ * @param whitelist tessedit_char_whitelist, null 이면 제한 없음
+ */
+public record OcrEngineConfig(String language, int pageSegMode, int ocrEngineMode, String whitelist) {
+
+    /** "Total" 확인용 (기본 페이지 모드, 영문만) */
+    public static final OcrEngineConfig CHECK = new OcrEngineConfig("eng", -1, 3);
+
+    /** 플레이어 영역용 (단일 라인 + LSTM), 백/실/버 표시가 있는 영역 */
+    public static final OcrEngineConfig SINGLE_LINE = new OcrEngineConfig("kor+eng", 7, 1);
+
+    /** 영문/숫자만 있는 영역 (닉네임으로 시작하는 창) */
+    public static final OcrEngineConfig ENG_LINE = new OcrEngineConfig("eng", 7, 1);
+
+    /** 금액으로 시작하는 창 */
+    public static final OcrEngineConfig DIGITS_LINE = new OcrEngineConfig("eng", 7, 1, "0123456789,");
+
+    public OcrEngineConfig(String language, int pageSegMode, int ocrEngineMode) {
+        this(language, pageSegMode, ocrEngineMode, null);
+    }
+
+    public String tag() {
+        return language + "/" + pageSegMode + "/" + ocrEngineMode + (whitelist != null ? "/" + whitelist : "");
+    }
+}
@@ -0,0 +1,130 @@
+package com.tess4j.rest;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Tesseract 에 그대로 넘길 수 있는 off-heap 픽셀 버퍼. calibration 처럼 한 프레임에 사각형을 바꿔 가며
+ * 여러 번 OCR 할 때만 만든다. {@link OcrEngine} 은 같은 프레임이면 SetImage 를 다시 하지 않는다.
+ * 다 쓰면 close 해서 버퍼를 만든 쪽({@link FramePreprocessor#frame})에 돌려준다.
+ */
+public final class OcrFrame implements AutoCloseable {
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private final long id;
+    private final int width;
+    private final int height;
+    private final int bytesPerPixel;
+    private final ByteBuffer pixels;
+    private final Consumer<ByteBuffer> recycler;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private OcrFrame(int width, int height, int bytesPerPixel, ByteBuffer pixels, Consumer<ByteBuffer> recycler) {
+        this.id = IDS.incrementAndGet();
+        this.width = width;
+        this.height = height;
+        this.bytesPerPixel = bytesPerPixel;
+        this.pixels = pixels;
+        this.recycler = recycler;
+    }
+
+    public static OcrFrame of(BufferedImage image) {
+        return of(image, null, null);
+    }
+
+    /**
+     * buffer 가 있고 충분히 크면 그 버퍼에 옮기고, 아니면 새로 할당한다. close 하면 버퍼를 recycler 로 넘긴다.
+     */
+    static OcrFrame of(BufferedImage image, ByteBuffer buffer, Consumer<ByteBuffer> recycler) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int bytesPerPixel = bytesPerPixel(image);
+        ByteBuffer pixels = ensureCapacity(buffer, width * height * bytesPerPixel);
+        copy(image, new Rectangle(0, 0, width, height), pixels);
+        return new OcrFrame(width, height, bytesPerPixel, pixels, recycler);
+    }
+
+    /**
+     * 8bit 그레이는 1 byte/pixel 로 그대로, 나머지는 RGB 3 byte/pixel 로 옮긴다.
+     */
+    static int bytesPerPixel(BufferedImage image) {
+        return image.getType() == BufferedImage.TYPE_BYTE_GRAY ? 1 : 3;
+    }
+
+    static ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity) {
+        if (buffer == null || buffer.capacity() < capacity) {
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * image 의 region 을 행 단위로 pixels 에 채우고 flip 한다 ({@link #bytesPerPixel} 형식).
+     */
+    static void copy(BufferedImage image, Rectangle region, ByteBuffer pixels) {
+        if (bytesPerPixel(image) == 1) {
+            byte[] line = new byte[region.width];
+            for (int y = 0; y < region.height; y++) {
+                image.getRaster().getDataElements(region.x, region.y + y, region.width, 1, line);
+                pixels.put(line);
+            }
+            pixels.flip();
+            return;
+        }
+
+        int[] row = new int[region.width];
+        byte[] line = new byte[region.width * 3];
+        for (int y = 0; y < region.height; y++) {
+            image.getRGB(region.x, region.y + y, region.width, 1, row, 0, region.width);
+            for (int x = 0, i = 0; x < region.width; x++) {
+                int rgb = row[x];
+                line[i++] = (byte) (rgb >> 16);
+                line[i++] = (byte) (rgb >> 8);
+                line[i++] = (byte) rgb;
+            }
+            pixels.put(line);
+        }
+        pixels.flip();
+    }
+
+    /** 프레임 구분용. 엔진이 직전에 SetImage 한 프레임인지 비교할 때 쓴다. */
+    public long getId() {
+        return id;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getBytesPerPixel() {
+        return bytesPerPixel;
+    }
+
+    public int getBytesPerLine() {
+        return width * bytesPerPixel;
+    }
+
+    /** 읽기 전용으로 사용 (여러 스레드의 엔진이 같은 버퍼를 SetImage 함) */
+    ByteBuffer getPixels() {
+        return pixels.duplicate();
+    }
+
+    /**
+     * 버퍼를 돌려준다. 그 뒤로는 이 프레임으로 OCR 하면 안 된다 (Tesseract 는 SetImage 때 복사하므로 이미 끝난 OCR 은 상관없음).
+     */
+    @Override
+    public void close() {
+        if (recycler != null && closed.compareAndSet(false, true)) {
+            recycler.accept(pixels);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.tess4j.rest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * OCR 동시 실행 제한을 넘어 요청을 처리하지 않은 경우. 클라이언트는 다음 프레임으로 다시 시도하면 된다.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class OcrOverloadedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public OcrOverloadedException(String message) {
+        super(message);
+    }
+}
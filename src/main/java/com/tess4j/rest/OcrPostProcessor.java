@@ -1,20 +1,127 @@
 package com.tess4j.rest;
 
-import java.text.NumberFormat;
-import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 public class OcrPostProcessor {
 
+    private static final int MAX_RETAINED_BUFFER = 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    /**
+     * 연속된 공백(\s+)을 하나의 공백으로 바꾸고 특수문자를 지운 뒤 trim 한다.
+     * 정규식 두 번 대신 한 번의 순회로 처리하며, 바뀐 것이 없으면 새 문자열을 만들지 않는다.
+     */
     public static String process(String text) {
-        // 연속된 공백을 하나의 공백으로 대체
-        text = text.replaceAll("\\s+", " ");
+        StringBuilder out = buffer();
+        boolean changed = false;
+        boolean inWhitespace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isWhitespace(c)) {
+                // 연속된 공백을 하나의 공백으로 대체
+                changed |= inWhitespace || c != ' ';
+                if (!inWhitespace) {
+                    out.append(' ');
+                }
+                inWhitespace = true;
+            } else {
+                // 특수문자 제거 (제거된 문자 양옆의 공백은 정규식 버전과 같이 각각 남음)
+                inWhitespace = false;
+                if (isSpecialCharacter(c)) {
+                    changed = true;
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        if (!changed) {
+            return text.trim();
+        }
+
+        int start = 0;
+        int end = out.length();
+        while (start < end && out.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && out.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return out.substring(start, end);
+    }
+
+    /**
+     * input[from, to) 를 out 에 붙이면서 숫자("\d+,?\d*")마다 세 자리 콤마를 다시 찍는다.
+     * 선행 0 은 Long.parseLong 과 같이 지운다.
+     */
+    public static void appendWithCommas(StringBuilder out, CharSequence input, int from, int to) {
+        int i = from;
+        while (i < to) {
+            if (!isDigit(input.charAt(i))) {
+                out.append(input.charAt(i++));
+                continue;
+            }
+
+            int firstStart = i;
+            while (i < to && isDigit(input.charAt(i))) {
+                i++;
+            }
+            int firstEnd = i;
+            int secondStart = i;
+            if (i < to && input.charAt(i) == ',') {
+                secondStart = ++i;
+                while (i < to && isDigit(input.charAt(i))) {
+                    i++;
+                }
+            }
+            int secondEnd = i;
+
+            int firstLength = firstEnd - firstStart;
+            int total = firstLength + (secondEnd - secondStart);
+            int k = 0;
+            while (k < total - 1 && digitAt(input, k, firstStart, firstLength, secondStart) == '0') {
+                k++;
+            }
+            int first = k;
+            for (; k < total; k++) {
+                if (k > first && (total - k) % 3 == 0) {
+                    out.append(',');
+                }
+                out.append(digitAt(input, k, firstStart, firstLength, secondStart));
+            }
+        }
+    }
 
-        // 특수문자 제거
-        text = text.replaceAll("[。!~@#$%^&*().?\":{}|<>=_—-]", "");
+    private static char digitAt(CharSequence input, int k, int firstStart, int firstLength, int secondStart) {
+        return k < firstLength ? input.charAt(firstStart + k) : input.charAt(secondStart + k - firstLength);
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffer = new StringBuilder(128);
+            BUFFER.set(buffer);
+        }
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // 정규식 \s 와 같은 문자 집합
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
 
-        return text.trim();
+    // [。!~@#$%^&*().?":{}|<>=_—-]
+    private static boolean isSpecialCharacter(char c) {
+        switch (c) {
+            case '。': case '!': case '~': case '@': case '#': case '$': case '%': case '^': case '&': case '*':
+            case '(': case ')': case '.': case '?': case '"': case ':': case '{': case '}': case '|': case '<':
+            case '>': case '=': case '_': case '—': case '-':
+                return true;
+            default:
+                return false;
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,170 @@
+package com.tess4j.rest;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 자리 번호(1~9)로 바로 찾는 플레이어 좌표 묶음. 자리당 하나만 들고, 순회는 항상 자리 번호 순서.
+ * 있는지 확인과 합치기가 배열 접근이라 정렬이나 리스트 전체 스캔이 필요 없다.
+ * JSON 으로는 예전과 같은 플레이어 배열로 저장된다 (users / layout_profiles 의 jsonb).
+ * 스레드 안전하지 않으므로 공유 중인 인스턴스는 고치지 말고 {@link #copy()} 해서 쓴다.
+ */
+public final class PlayerLayout implements Iterable<DynamicTextRegionFinder.Player> {
+
+    public static final int SEATS = 9;
+
+    private final DynamicTextRegionFinder.Player[] seats = new DynamicTextRegionFinder.Player[SEATS + 1];
+    private int size;
+
+    public PlayerLayout() {
+    }
+
+    /**
+     * 같은 자리가 여러 번 있으면 앞의 것을 쓴다.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static PlayerLayout of(Collection<DynamicTextRegionFinder.Player> players) {
+        PlayerLayout layout = new PlayerLayout();
+        if (players != null) {
+            players.forEach(layout::add);
+        }
+        return layout;
+    }
+
+    public PlayerLayout copy() {
+        PlayerLayout copy = new PlayerLayout();
+        System.arraycopy(seats, 0, copy.seats, 0, seats.length);
+        copy.size = size;
+        return copy;
+    }
+
+    public boolean contains(int index) {
+        return index >= 1 && index <= SEATS && seats[index] != null;
+    }
+
+    public DynamicTextRegionFinder.Player get(int index) {
+        return contains(index) ? seats[index] : null;
+    }
+
+    /**
+     * 비어 있는 자리면 넣고 true. 이미 있는 자리나 범위 밖 index 는 무시한다.
+     */
+    public boolean add(DynamicTextRegionFinder.Player player) {
+        int index = player.getIndex();
+        if (index < 1 || index > SEATS || seats[index] != null) {
+            return false;
+        }
+        seats[index] = player;
+        size++;
+        return true;
+    }
+
+    /**
+     * 자리를 비운다. 있던 자리면 true.
+     */
+    public boolean remove(int index) {
+        if (!contains(index)) {
+            return false;
+        }
+        seats[index] = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * other 에서 이 묶음에 없는 자리만 가져온다. 새로 채운 자리 수를 돌려준다.
+     */
+    public int addAll(PlayerLayout other) {
+        int added = 0;
+        for (int index = 1; index <= SEATS; index++) {
+            if (seats[index] == null && other.seats[index] != null) {
+                seats[index] = other.seats[index];
+                added++;
+            }
+        }
+        size += added;
+        return added;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == SEATS;
+    }
+
+    public Set<Integer> indices() {
+        Set<Integer> indices = new HashSet<>();
+        for (int index = 1; index <= SEATS; index++) {
+            if (seats[index] != null) {
+                indices.add(index);
+            }
+        }
+        return indices;
+    }
+
+    public Set<Integer> missingIndices() {
+        Set<Integer> missing = new HashSet<>();
+        for (int index = 1; index <= SEATS; index++) {
+            if (seats[index] == null) {
+                missing.add(index);
+            }
+        }
+        return missing;
+    }
+
+    @JsonValue
+    public List<DynamicTextRegionFinder.Player> toList() {
+        List<DynamicTextRegionFinder.Player> players = new ArrayList<>(size);
+        forEach(players::add);
+        return players;
+    }
+
+    @Override
+    public Iterator<DynamicTextRegionFinder.Player> iterator() {
+        return new Iterator<>() {
+            private int next = nextIndex(1);
+
+            @Override
+            public boolean hasNext() {
+                return next <= SEATS;
+            }
+
+            @Override
+            public DynamicTextRegionFinder.Player next() {
+                if (next > SEATS) {
+                    throw new NoSuchElementException();
+                }
+                DynamicTextRegionFinder.Player player = seats[next];
+                next = nextIndex(next + 1);
+                return player;
+            }
+        };
+    }
+
+    private int nextIndex(int from) {
+        int index = from;
+        while (index <= SEATS && seats[index] == null) {
+            index++;
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
@@ -0,0 +1,128 @@
+package com.tess4j.rest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import net.sourceforge.tess4j.TesseractException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 플레이어 영역 OCR 전용 스레드 풀. findDynamicRegions 가 쓰는 calibration 밴드 스레드와 분리되어 있어
+ * 오래 걸리는 calibration 이 매 프레임 OCR 을 굶기지 않는다.
+ * Tesseract 는 스레드 안전하지 않으므로 워커 스레드마다 자기 엔진을 갖는다.
+ */
+@Component
+public class PlayerOcrExecutor {
+
+    @FunctionalInterface
+    public interface EngineTask<T> {
+        T run(OcrEngine engine) throws TesseractException, IOException;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final TesseractPool tesseractPool;
+    private final OcrConcurrencyLimiter limiter;
+    private final ThreadLocal<OcrEngine> workerEngine = new ThreadLocal<>();
+    private final Queue<OcrEngine> workerEngines = new ConcurrentLinkedQueue<>();
+
+    public PlayerOcrExecutor(@Value("${ocr.player-executor.threads:0}") int threads,
+                             @Value("${ocr.player-executor.queue-capacity:64}") int queueCapacity,
+                             TesseractPool tesseractPool,
+                             OcrConcurrencyLimiter limiter,
+                             MeterRegistry meterRegistry) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Worker(runnable, "player-ocr-" + threadNumber.incrementAndGet()),
+                // 큐가 꽉 차면 요청 스레드에서 직접 실행 (이때는 풀에서 엔진을 빌림)
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.tesseractPool = tesseractPool;
+        this.limiter = limiter;
+
+        Gauge.builder("ocr.player.executor.queue", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("ocr.player.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 작업들을 병렬로 실행하고 입력 순서대로 결과를 돌려준다.
+     */
+    public <T> List<T> invokeAll(List<EngineTask<T>> tasks) throws TesseractException, IOException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (EngineTask<T> task : tasks) {
+            futures.add(executor.submit(() -> runWithEngine(task)));
+        }
+
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TesseractException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TesseractException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof OcrOverloadedException cause) {
+                throw cause;
+            }
+            throw new TesseractException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    private <T> T runWithEngine(EngineTask<T> task) throws TesseractException, IOException {
+        if (!(Thread.currentThread() instanceof Worker)) {
+            OcrEngine engine = tesseractPool.borrow(OcrEngineConfig.SINGLE_LINE);
+            try {
+                return task.run(engine);
+            } finally {
+                tesseractPool.release(engine);
+            }
+        }
+
+        OcrEngine engine = workerEngine.get();
+        if (engine == null) {
+            engine = new OcrEngine(OcrEngineConfig.SINGLE_LINE, limiter);
+            workerEngine.set(engine);
+            workerEngines.add(engine);
+        }
+        return task.run(engine);
+    }
+
+    private static final class Worker extends Thread {
+        Worker(Runnable runnable, String name) {
+            super(runnable, name);
+            setDaemon(true);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        workerEngines.forEach(OcrEngine::close);
+    }
+}
@@ -0,0 +1,327 @@
+package com.tess4j.rest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tess4j.rest.model.ImageBlob;
+import com.tess4j.rest.repository.ImageBlobRepository;
+import com.tess4j.rest.repository.ImageRepository;
+import com.tess4j.rest.repository.ImageSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 플레이어 영역 인식 기록(잘라낸 이미지 + 인식 결과)을 DB 에 남긴다.
+ * 요청 스레드는 큐에 넣기만 하고, 백그라운드 스레드가 batch-size 개 또는 flush-interval 마다 JDBC batch insert 한다.
+ * 이미지 본문은 sha-256 으로 image_blobs 에 한 번만 저장하고, images 에는 해시만 남긴다 (같은 닉네임/금액 영역이 반복됨).
+ * 같은 스레드가 cleanup-interval 마다 max-age 보다 오래된 기록과 어느 기록도 가리키지 않는 이미지를 지운다.
+ */
+@Component
+public class RecognitionHistory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecognitionHistory.class);
+    private static final String EXTENSION = "png";
+    private static final String INSERT_BLOB = "INSERT INTO image_blobs (hash, extension, data) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_IMAGE = "INSERT INTO images (user_id, extension, text, image_hash, created_at) VALUES (?, ?, ?, ?, ?)";
+    // 한 번에 지우는 행 수. 오래 잠그지 않도록 나눠서 지움
+    private static final int CLEANUP_BATCH = 1000;
+    private static final String DELETE_EXPIRED_IMAGES = "DELETE FROM images WHERE id IN "
+            + "(SELECT id FROM images WHERE created_at < ? ORDER BY id LIMIT " + CLEANUP_BATCH + ")";
+    private static final String DELETE_ORPHAN_BLOBS = "DELETE FROM image_blobs WHERE hash IN "
+            + "(SELECT b.hash FROM image_blobs b WHERE NOT EXISTS (SELECT 1 FROM images i WHERE i.image_hash = b.hash) LIMIT " + CLEANUP_BATCH + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageRepository imageRepository;
+    private final ImageBlobRepository imageBlobRepository;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration maxAge;
+    private final Duration cleanupInterval;
+    private final BlockingQueue<Entry> queue;
+    // 이미 저장한 것으로 아는 해시. 여기 있으면 본문 insert 자체를 생략
+    private final Cache<String, Boolean> knownBlobs;
+    private final Counter dropped;
+    private final Counter sampledOut;
+    private final Counter rowsWritten;
+    private final Counter blobsWritten;
+    private final Counter blobsDeduplicated;
+    private final Counter rowsExpired;
+    private final Counter blobsExpired;
+    private final Timer flushTimer;
+    private Thread worker;
+
+    public RecognitionHistory(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ImageRepository imageRepository,
+                              ImageBlobRepository imageBlobRepository,
+                              @Value("${ocr.history.enabled:true}") boolean enabled,
+                              @Value("${ocr.history.sample-rate:0.1}") double sampleRate,
+                              @Value("${ocr.history.queue-capacity:1024}") int queueCapacity,
+                              @Value("${ocr.history.batch-size:100}") int batchSize,
+                              @Value("${ocr.history.flush-interval:1s}") Duration flushInterval,
+                              @Value("${ocr.history.known-blobs:100000}") long knownBlobs,
+                              @Value("${ocr.history.max-age:7d}") Duration maxAge,
+                              @Value("${ocr.history.cleanup-interval:1h}") Duration cleanupInterval,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.imageRepository = imageRepository;
+        this.imageBlobRepository = imageBlobRepository;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = flushInterval;
+        this.maxAge = maxAge;
+        this.cleanupInterval = cleanupInterval;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Caffeine<Object, Object> knownBlobsBuilder = Caffeine.newBuilder()
+                .maximumSize(knownBlobs);
+        if (!maxAge.isZero() && !maxAge.isNegative()) {
+            // 해시는 그것을 가리키는 기록과 같이 저장될 때만 기억하므로, max-age 보다 짧게 기억하면 캐시에 있는 해시는
+            // 아직 지워지지 않은 기록이 가리키고 있어 (다른 인스턴스의) cleanup 이 본문을 지우지 않음
+            knownBlobsBuilder.expireAfterWrite(maxAge.dividedBy(2));
+        }
+        this.knownBlobs = knownBlobsBuilder.build();
+        this.dropped = meterRegistry.counter("ocr.history.records", "outcome", "dropped");
+        this.sampledOut = meterRegistry.counter("ocr.history.records", "outcome", "sampled_out");
+        this.rowsWritten = meterRegistry.counter("ocr.history.records", "outcome", "written");
+        this.blobsWritten = meterRegistry.counter("ocr.history.blobs", "outcome", "written");
+        this.blobsDeduplicated = meterRegistry.counter("ocr.history.blobs", "outcome", "deduplicated");
+        this.rowsExpired = meterRegistry.counter("ocr.history.records", "outcome", "expired");
+        this.blobsExpired = meterRegistry.counter("ocr.history.blobs", "outcome", "expired");
+        this.flushTimer = Timer.builder("ocr.history.flush")
+                .description("Batch insert of buffered recognition history")
+                .register(meterRegistry);
+        Gauge.builder("ocr.history.queue", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        worker = new Thread(this::run, "recognition-history");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 인식 기록을 저장 큐에 넣는다. 요청 스레드를 막지 않고, 큐가 가득 차면 버린다.
+     */
+    public void record(String userId, BufferedImage image, String text) {
+        if (!enabled) {
+            return;
+        }
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.increment();
+            return;
+        }
+        // getSubimage 는 프레임을 참조하므로 영역만 복사해서 넣음
+        if (queue.remainingCapacity() == 0 || !queue.offer(new Entry(userId, DebugImageArchiver.copy(image), text, Instant.now()))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * 사용자의 인식 기록 한 페이지. 이미지 본문은 읽지 않는다.
+     */
+    public Page<ImageSummary> page(String userId, Pageable pageable) {
+        return imageRepository.findByUserId(userId, pageable);
+    }
+
+    /**
+     * 사용자의 인식 기록 전체를 한 줄씩 넘긴다. fetch size 단위로 읽으므로 기록 수와 상관없이 메모리를 일정하게 쓴다.
+     */
+    @Transactional(readOnly = true)
+    public void forEach(String userId, Consumer<ImageSummary> consumer) {
+        try (Stream<ImageSummary> summaries = imageRepository.streamByUserIdOrderById(userId)) {
+            summaries.forEach(consumer);
+        }
+    }
+
+    /**
+     * 사용자의 기록에 있는 이미지만 본문을 읽는다.
+     */
+    public Optional<ImageBlob> image(String userId, String hash) {
+        if (!imageRepository.existsByUserIdAndImageHash(userId, hash)) {
+            return Optional.empty();
+        }
+        return imageBlobRepository.findById(hash);
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        // 시작하자마자 한 번, 그 뒤로는 cleanup-interval 마다. poll 이 flush-interval 마다 깨므로 기록이 없어도 돈다
+        long nextCleanup = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            if (System.nanoTime() - nextCleanup >= 0) {
+                cleanup();
+                nextCleanup = System.nanoTime() + cleanupInterval.toNanos();
+            }
+            try {
+                Entry first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                // batch-size 가 찰 때까지 flush-interval 동안 더 모음
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // 모으던 batch 는 아래에서 저장
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                dropped.increment(batch.size());
+                batch.clear();
+                LOGGER.warn("recognition history flush failed : {}", e.getMessage());
+            }
+        }
+        // 종료 시 남은 기록은 한 번에 저장
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            try {
+                flush(batch);
+            } catch (RuntimeException e) {
+                LOGGER.warn("recognition history flush failed : {}", e.getMessage());
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        flushTimer.record(() -> {
+            Map<String, byte[]> blobs = new LinkedHashMap<>();
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                byte[] data = encode(entry.image());
+                if (data == null) {
+                    continue;
+                }
+                String hash = DigestUtils.sha256Hex(data);
+                // 이미 저장했거나 이번 batch 에 같은 이미지가 있으면 본문은 다시 보내지 않음
+                if (knownBlobs.getIfPresent(hash) != null || blobs.putIfAbsent(hash, data) != null) {
+                    blobsDeduplicated.increment();
+                }
+                rows.add(new Object[]{entry.userId(), EXTENSION, entry.text(), hash, Timestamp.from(entry.createdAt())});
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+            // 본문과 기록을 한 트랜잭션으로 : 다른 인스턴스의 cleanup 이 기록이 아직 없는 새 본문을 고아로 보고 지우지 않게
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!blobs.isEmpty()) {
+                    List<Object[]> blobRows = new ArrayList<>(blobs.size());
+                    blobs.forEach((hash, data) -> blobRows.add(new Object[]{hash, EXTENSION, data}));
+                    // 다른 인스턴스가 먼저 저장한 해시는 ON CONFLICT 로 넘어감 (유일 제약이 hash PK 뿐이라 대상 없이 써도 같고,
+                    // 이렇게 써야 loadtest 프로필의 H2 PostgreSQL 모드에서도 돈다)
+                    jdbcTemplate.batchUpdate(INSERT_BLOB, blobRows);
+                }
+                jdbcTemplate.batchUpdate(INSERT_IMAGE, rows);
+            });
+            blobs.keySet().forEach(hash -> knownBlobs.put(hash, Boolean.TRUE));
+            blobsWritten.increment(blobs.size());
+            rowsWritten.increment(rows.size());
+        });
+    }
+
+    /**
+     * max-age 보다 오래된 기록을 지우고, 그 때문에 아무도 가리키지 않게 된 이미지 본문을 지운다.
+     * flush 와 같은 스레드에서 돌고, known-blobs 는 max-age 보다 짧게만 기억하므로 이후 기록이 가리킬 본문을 지우지 않는다.
+     */
+    private void cleanup() {
+        if (maxAge.isZero() || maxAge.isNegative()) {
+            return;
+        }
+        try {
+            Timestamp cutoff = Timestamp.from(Instant.now().minus(maxAge));
+            long rows = deleteInBatches(DELETE_EXPIRED_IMAGES, cutoff);
+            if (rows == 0) {
+                return;
+            }
+            rowsExpired.increment(rows);
+            long blobs = deleteInBatches(DELETE_ORPHAN_BLOBS);
+            blobsExpired.increment(blobs);
+            LOGGER.info("recognition history cleanup : {} records, {} images older than {}", rows, blobs, maxAge);
+        } catch (RuntimeException e) {
+            LOGGER.warn("recognition history cleanup failed : {}", e.getMessage());
+        }
+    }
+
+    private long deleteInBatches(String sql, Object... args) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql, args);
+            total += deleted;
+        } while (deleted >= CLEANUP_BATCH && !Thread.currentThread().isInterrupted());
+        return total;
+    }
+
+    private static byte[] encode(BufferedImage image) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, EXTENSION, output);
+        } catch (IOException e) {
+            LOGGER.warn("recognition history encode failed : {}", e.getMessage());
+            return null;
+        }
+        return output.toByteArray();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private record Entry(String userId, BufferedImage image, String text, Instant createdAt) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.tess4j.rest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tess4j.rest.Tess4jV1.TextWithCoordinates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 사용자별로 최근 결과 몇 개를 sequence 번호와 함께 들고 있다가, 클라이언트가 마지막으로 받은 sequence 이후
+ * 글자나 좌표가 바뀐 영역만 돌려준다. 그 sequence 가 ring 에 없으면 (오래됐거나 서버 재시작) 전체를 돌려준다.
+ */
+@Component
+public class RecognitionResultRing {
+
+    /**
+     * @param sequence 이번 결과의 번호. 다음 요청에 since 로 보낸다
+     * @param full     since 기준이 없어 changed 가 전체 결과인 경우
+     * @param removed  since 이후 없어진 영역 (text 는 빈 문자열)
+     */
+    public record Delta(long sequence, boolean full, List<TextWithCoordinates> changed, List<TextWithCoordinates> removed) {
+    }
+
+    // 서버를 다시 띄워도 예전 sequence 와 겹치지 않도록 시각에서 시작
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final int ringSize;
+    private final Cache<String, Ring> rings;
+    private final Counter fullResponses;
+    private final Counter deltaResponses;
+    private final DistributionSummary changedRegions;
+
+    public RecognitionResultRing(@Value("${ocr.delta.ring-size:8}") int ringSize,
+                                 @Value("${ocr.delta.ttl:10m}") Duration ttl,
+                                 @Value("${ocr.delta.max-users:10000}") long maxUsers,
+                                 MeterRegistry meterRegistry) {
+        this.ringSize = Math.max(1, ringSize);
+        this.rings = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .maximumSize(maxUsers)
+                .build();
+        this.fullResponses = meterRegistry.counter("ocr.delta.responses", "mode", "full");
+        this.deltaResponses = meterRegistry.counter("ocr.delta.responses", "mode", "delta");
+        this.changedRegions = DistributionSummary.builder("ocr.delta.changed")
+                .description("Regions returned per delta response")
+                .register(meterRegistry);
+    }
+
+    /**
+     * result 를 ring 에 넣고 since 이후 바뀐 영역을 돌려준다.
+     */
+    public Delta record(String userId, List<TextWithCoordinates> result, long since) {
+        Ring ring = rings.get(userId, key -> new Ring(ringSize));
+        Map<String, TextWithCoordinates> current = new HashMap<>();
+        for (TextWithCoordinates text : result) {
+            current.put(regionKey(text), text);
+        }
+
+        Delta delta;
+        synchronized (ring) {
+            Map<String, TextWithCoordinates> base = ring.find(since);
+            long next = sequence.incrementAndGet();
+            ring.add(next, current);
+            delta = base == null ? new Delta(next, true, result, List.of()) : diff(next, base, result, current);
+        }
+        (delta.full() ? fullResponses : deltaResponses).increment();
+        changedRegions.record(delta.changed().size() + delta.removed().size());
+        return delta;
+    }
+
+    private static Delta diff(long next, Map<String, TextWithCoordinates> base, List<TextWithCoordinates> result, Map<String, TextWithCoordinates> current) {
+        List<TextWithCoordinates> changed = new ArrayList<>();
+        for (TextWithCoordinates text : result) {
+            TextWithCoordinates previous = base.get(regionKey(text));
+            if (previous == null || !previous.getText().equals(text.getText())) {
+                changed.add(text);
+            }
+        }
+        List<TextWithCoordinates> removed = new ArrayList<>();
+        base.forEach((key, text) -> {
+            if (!current.containsKey(key)) {
+                removed.add(new TextWithCoordinates("", text.getX(), text.getY(), text.getWidth(), text.getHeight()));
+            }
+        });
+        return new Delta(next, false, changed, removed);
+    }
+
+    /**
+     * 영역 식별자. SCANNING / READY 같은 상태 메시지는 좌표가 모두 0 이라 같은 키를 쓴다.
+     */
+    static String regionKey(TextWithCoordinates text) {
+        return text.getX() + "," + text.getY() + "," + text.getWidth() + "," + text.getHeight();
+    }
+
+    /**
+     * 크기가 고정된 원형 버퍼. 가장 오래된 결과부터 덮어쓴다.
+     */
+    private static final class Ring {
+        private final long[] sequences;
+        private final List<Map<String, TextWithCoordinates>> results;
+        private int next;
+
+        private Ring(int size) {
+            this.sequences = new long[size];
+            this.results = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                results.add(null);
+            }
+        }
+
+        private void add(long sequence, Map<String, TextWithCoordinates> result) {
+            sequences[next] = sequence;
+            results.set(next, result);
+            next = (next + 1) % sequences.length;
+        }
+
+        private Map<String, TextWithCoordinates> find(long sequence) {
+            if (sequence <= 0) {
+                return null;
+            }
+            for (int i = 0; i < sequences.length; i++) {
+                if (sequences[i] == sequence) {
+                    return results.get(i);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.tess4j.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tess4j.rest.Tess4jV1.TextWithCoordinates;
+import com.tess4j.rest.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ocr/v1/recognize-stream 에 X-User-Id / X-User-Password 헤더를 붙여 연결하면 로그인은 연결할 때 한 번만 하고,
+ * 이후 바이너리 메시지 하나를 스크린샷 한 장으로 인식한다.
+ * 응답은 직전 프레임과 비교해 바뀐 항목만 담은 TextWithCoordinates JSON 배열이며, 바뀐 것이 없으면 보내지 않는다.
+ * 없어진 영역은 text 가 빈 문자열인 항목으로 보낸다 (recognize-screen-delta 의 removed 와 같음).
+ */
+@Component
+public class RecognitionSessionHandler extends BinaryWebSocketHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecognitionSessionHandler.class);
+    private static final String USER = "user";
+    private static final String LAST_RESULT = "lastResult";
+
+    private final UserSessionCache userSessionCache;
+    private final ScreenRecognitionService screenRecognitionService;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger sessions = new AtomicInteger();
+
+    public RecognitionSessionHandler(UserSessionCache userSessionCache,
+                                     ScreenRecognitionService screenRecognitionService,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        this.userSessionCache = userSessionCache;
+        this.screenRecognitionService = screenRecognitionService;
+        this.objectMapper = objectMapper;
+        meterRegistry.gauge("ocr.stream.sessions", sessions);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        HttpHeaders headers = session.getHandshakeHeaders();
+        Optional<User> loginUser = Optional.ofNullable(headers.getFirst(UserSessionCache.USER_ID_HEADER))
+                .flatMap(userId -> userSessionCache.login(userId, headers.getFirst(UserSessionCache.USER_PASSWORD_HEADER)));
+        if (loginUser.isEmpty()) {
+            send(session, List.of(new TextWithCoordinates("FAIL TO LOGIN", 0, 0, 0, 0)));
+            session.close(CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        session.getAttributes().put(USER, loginUser.get());
+        session.getAttributes().put(LAST_RESULT, new HashMap<String, TextWithCoordinates>());
+        sessions.incrementAndGet();
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        User user = (User) session.getAttributes().get(USER);
+        if (user == null) {
+            return;
+        }
+        ByteBuffer payload = message.getPayload();
+        byte[] frame = new byte[payload.remaining()];
+        payload.get(frame);
+
+        List<TextWithCoordinates> result;
+        try {
+            result = screenRecognitionService.recognize(user, List.of(new ByteArrayResource(frame))).get(0);
+        } catch (OcrOverloadedException e) {
+            // 계속 다음 프레임이 오므로 이번 프레임만 버림
+            LOGGER.debug("recognize-stream session {} frame dropped : {}", session.getId(), e.getMessage());
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, TextWithCoordinates> lastResult = (Map<String, TextWithCoordinates>) session.getAttributes().get(LAST_RESULT);
+        List<TextWithCoordinates> changed = changedSince(lastResult, result);
+        if (!changed.isEmpty()) {
+            send(session, changed);
+        }
+    }
+
+    /**
+     * 영역(좌표)별로 글자가 바뀐 항목과 없어진 영역을 고르고 lastResult 를 이번 프레임으로 바꾼다.
+     */
+    private static List<TextWithCoordinates> changedSince(Map<String, TextWithCoordinates> lastResult, List<TextWithCoordinates> result) {
+        Map<String, TextWithCoordinates> current = new HashMap<>();
+        List<TextWithCoordinates> changed = new ArrayList<>();
+        for (TextWithCoordinates text : result) {
+            String key = RecognitionResultRing.regionKey(text);
+            current.put(key, text);
+            TextWithCoordinates previous = lastResult.get(key);
+            if (previous == null || !previous.getText().equals(text.getText())) {
+                changed.add(text);
+            }
+        }
+        lastResult.forEach((key, text) -> {
+            if (!current.containsKey(key)) {
+                changed.add(new TextWithCoordinates("", text.getX(), text.getY(), text.getWidth(), text.getHeight()));
+            }
+        });
+        lastResult.clear();
+        lastResult.putAll(current);
+        return changed;
+    }
+
+    private void send(WebSocketSession session, List<TextWithCoordinates> texts) throws Exception {
+        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(texts)));
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        LOGGER.warn("recognize-stream session {} error : {}", session.getId(), exception.getMessage());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+        if (session.getAttributes().remove(USER) != null) {
+            sessions.decrementAndGet();
+        }
+    }
+}
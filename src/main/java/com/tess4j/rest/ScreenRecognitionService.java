@@ -0,0 +1,329 @@
+package com.tess4j.rest;
+
+import com.tess4j.rest.Tess4jV1.TextWithCoordinates;
+import com.tess4j.rest.model.User;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import net.sourceforge.tess4j.TesseractException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 스크린샷 한 장 또는 여러 장을 인식한다.
+ * 여러 장이면 디코딩과 전처리만 전용 풀에서 프레임끼리 병렬로 하고, Total 확인과 플레이어 OCR 은 프레임 순서대로 한다.
+ * 변경 감지를 순서대로 해야 같은 배치 안에서도 앞 프레임의 결과를 뒤 프레임이 재사용한다.
+ * 플레이어 좌표는 배치가 끝난 뒤 한 번만 저장한다.
+ */
+@Component
+public class ScreenRecognitionService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScreenRecognitionService.class);
+
+    private final UserSessionCache userSessionCache;
+    private final TesseractPool tesseractPool;
+    private final FrameChangeDetector frameChangeDetector;
+    private final PlayerOcrExecutor playerOcrExecutor;
+    private final DebugImageArchiver debugImageArchiver;
+    private final FramePreprocessor framePreprocessor;
+    private final TotalScreenGate totalScreenGate;
+    private final LayoutProfileService layoutProfileService;
+    private final CalibrationScheduler calibrationScheduler;
+    private final RecognitionHistory recognitionHistory;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor decodeExecutor;
+
+    public ScreenRecognitionService(UserSessionCache userSessionCache,
+                                    TesseractPool tesseractPool,
+                                    FrameChangeDetector frameChangeDetector,
+                                    PlayerOcrExecutor playerOcrExecutor,
+                                    DebugImageArchiver debugImageArchiver,
+                                    FramePreprocessor framePreprocessor,
+                                    TotalScreenGate totalScreenGate,
+                                    LayoutProfileService layoutProfileService,
+                                    CalibrationScheduler calibrationScheduler,
+                                    RecognitionHistory recognitionHistory,
+                                    @Value("${ocr.decode-executor.threads:0}") int decodeThreads,
+                                    @Value("${ocr.decode-executor.queue-capacity:64}") int decodeQueueCapacity,
+                                    MeterRegistry meterRegistry) {
+        this.userSessionCache = userSessionCache;
+        this.tesseractPool = tesseractPool;
+        this.frameChangeDetector = frameChangeDetector;
+        this.playerOcrExecutor = playerOcrExecutor;
+        this.debugImageArchiver = debugImageArchiver;
+        this.framePreprocessor = framePreprocessor;
+        this.totalScreenGate = totalScreenGate;
+        this.layoutProfileService = layoutProfileService;
+        this.calibrationScheduler = calibrationScheduler;
+        this.recognitionHistory = recognitionHistory;
+        this.meterRegistry = meterRegistry;
+        int size = decodeThreads > 0 ? decodeThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        // OCR 스레드와 따로 둠. 큐가 꽉 차면 요청 스레드에서 디코딩
+        this.decodeExecutor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(decodeQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "frame-decode-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 프레임 순서대로 프레임별 결과를 돌려준다. 결과가 없는 프레임은 "READY" 를 담는다.
+     * files 는 업로드 파일(MultipartFile) 이나 WebSocket 으로 받은 바이트(ByteArrayResource).
+     */
+    public List<List<TextWithCoordinates>> recognize(User user, List<? extends InputStreamSource> files) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+
+        List<Frame> frames = new ArrayList<>(files.size());
+        List<Future<?>> decoding = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            Frame frame = new Frame(files.size() == 1 ? user.getUserId() : user.getUserId() + "-" + i, timestamp);
+            InputStreamSource file = files.get(i);
+            frames.add(frame);
+            decoding.add(decodeExecutor.submit(() -> decode(frame, file)));
+        }
+        awaitAll(decoding);
+
+        var players = userSessionCache.players(user);
+        for (Frame frame : frames) {
+            if (frame.image == null) {
+                continue;
+            }
+            try {
+                if (isTotal(user.getUserId(), frame)) {
+                    recognizePlayers(user, frame, players);
+                }
+            } catch (IOException | TesseractException e) {
+                e.printStackTrace();
+            }
+        }
+        userSessionCache.updatePlayers(user, players);
+
+        List<List<TextWithCoordinates>> results = new ArrayList<>(frames.size());
+        for (Frame frame : frames) {
+            DistributionSummary.builder("ocr.request.calls")
+                    .description("Tesseract calls per recognized frame")
+                    .register(meterRegistry)
+                    .record(frame.ocrCalls.sum());
+            if (frame.result.isEmpty()) {
+                frame.result.add(new TextWithCoordinates(
+                        "READY", 0, 0, 0, 0
+                ));
+            }
+            results.add(frame.result);
+        }
+        return results;
+    }
+
+    /**
+     * 이미지를 읽고 전처리한다. 읽지 못한 프레임은 image 가 null 로 남아 결과 없이 돌려준다.
+     */
+    private void decode(Frame frame, InputStreamSource file) {
+        try {
+            BufferedImage image = ImageIO.read(file.getInputStream());
+            if (image == null) {
+                LOGGER.warn("frame {} is not a readable image", frame.fileNamePrefix);
+                return;
+            }
+            // OCR 은 전처리한 이미지로, 좌표와 변경 감지는 원본 기준
+            frame.prepared = framePreprocessor.prepare(image);
+            frame.image = image;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // 그 프레임만 실패로 둠
+                    LOGGER.warn("frame decode failed : {}", e.getCause().toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Total 화면인지 확인한다. 아니면 "SCANNING..." 을 결과에 넣는다.
+     */
+    private boolean isTotal(String userId, Frame frame) throws TesseractException {
+        BufferedImage image = frame.image;
+        var checkRegion = new Rectangle(image.getWidth()/3, image.getHeight()/2, image.getWidth()/5, image.getWidth()/10);
+        BufferedImage checkImage = frame.prepared.crop(checkRegion);
+        // 직전 프레임과 같은 화면이면 check OCR 생략
+        var checkSnapshot = frameChangeDetector.capture(userId, "check", image, checkRegion);
+        String checkText;
+        TotalScreenGate.Verdict verdict;
+        if (checkSnapshot.previous() != null) {
+            checkText = checkSnapshot.previous().getText();
+        } else if ((verdict = totalScreenGate.check(userId, image, checkRegion)) != TotalScreenGate.Verdict.UNKNOWN) {
+            // 이 사용자/해상도에서 배운 템플릿과 확실히 같으면 OCR 생략
+            checkText = verdict == TotalScreenGate.Verdict.TOTAL ? "Total" : "";
+            checkSnapshot.remember(new TextWithCoordinates(checkText, checkRegion.x, checkRegion.y, checkRegion.width, checkRegion.height));
+        } else {
+            OcrEngine tesseract = tesseractPool.borrow(OcrEngineConfig.CHECK);
+            Timer.Sample checkSample = Timer.start(meterRegistry);
+            try {
+                checkText = tesseract.doOCR(frame.prepared.image(), frame.prepared.scale(checkRegion)).trim();
+                frame.ocrCalls.increment();
+            } finally {
+                checkSample.stop(meterRegistry.timer("ocr.check"));
+                tesseractPool.release(tesseract);
+            }
+            totalScreenGate.learn(userId, image, checkRegion, checkText.contains("Total"));
+            checkSnapshot.remember(new TextWithCoordinates(checkText, checkRegion.x, checkRegion.y, checkRegion.width, checkRegion.height));
+        }
+        if (!checkText.contains("Total")) {
+            debugImageArchiver.archive(checkImage, String.format("%s_%s_scanning.png", frame.fileNamePrefix, frame.timestamp));
+            frame.result.add(new TextWithCoordinates(
+                    "SCANNING...", 0, 0, 0, 0
+            ));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 빠진 좌표를 채우고 플레이어 영역을 인식한다. 찾은 좌표는 players 에 더해져 다음 프레임이 그대로 쓴다.
+     */
+    private void recognizePlayers(User user, Frame frame, PlayerLayout players) throws TesseractException, IOException {
+        int width = frame.image.getWidth();
+        int height = frame.image.getHeight();
+        // 같은 화면 비율로 이미 학습된 좌표가 있으면 스캔 없이 사용. 이번 프레임의 OCR 로 검증한다
+        Set<Integer> fromProfile = players.isFull() ? Set.of() : layoutProfileService.complete(user.getUserId(), width, height, players);
+        // 좌표가 다 모일 때까지는 Total 화면마다 calibration
+        // async 이면 이번 프레임은 이미 아는 플레이어만 인식하고 calibration 은 백그라운드에서
+        if (!players.isFull()) {
+            if (calibrationScheduler.isAsync()) {
+                calibrationScheduler.submit(user, frame.prepared);
+            } else {
+                players.addAll(calibrationScheduler.calibrate(user.getUserId(), frame.prepared, players, frame.ocrCalls));
+            }
+        }
+
+        List<TextWithCoordinates> results = new ArrayList<>(players.size());
+        List<Integer> pending = new ArrayList<>();
+        List<DynamicTextRegionFinder.Player> pendingPlayers = new ArrayList<>();
+        List<FrameChangeDetector.Snapshot> snapshots = new ArrayList<>();
+        List<PlayerOcrExecutor.EngineTask<TextWithCoordinates>> playerTasks = new ArrayList<>();
+        for (DynamicTextRegionFinder.Player player : players) {
+            Rectangle region = player.toAbsoluteRectangle(width, height);
+            var playerSnapshot = frameChangeDetector.capture(user.getUserId(), "player-" + player.getIndex(), frame.image, region);
+            if (playerSnapshot.previous() != null) {
+                // 바뀌지 않은 영역은 워커(엔진)를 거치지 않고 여기서 바로 채움
+                results.add(playerSnapshot.previous());
+            } else {
+                pending.add(results.size());
+                results.add(null);
+                pendingPlayers.add(player);
+                snapshots.add(playerSnapshot);
+                playerTasks.add(playerTask(user.getUserId(), frame, player, region, fromProfile.contains(player.getIndex())));
+            }
+        }
+
+        // 실제로 OCR 이 필요한 플레이어만 병렬로 실행하고, 다음 프레임이 비교하도록 결과를 기억
+        List<TextWithCoordinates> playerResults = playerOcrExecutor.invokeAll(playerTasks);
+        for (int i = 0; i < playerResults.size(); i++) {
+            TextWithCoordinates playerResult = playerResults.get(i);
+            if (playerResult == null) {
+                // 이 사용자에게는 프로필 좌표가 틀림 : 사용자 좌표에서 빼서 다음 Total 화면에서 calibration 으로 다시 찾게 하고,
+                // 프로필에는 거부로만 남김 (여러 사용자가 거부해야 빠짐)
+                int index = pendingPlayers.get(i).getIndex();
+                players.remove(index);
+                layoutProfileService.reject(user.getUserId(), width, height, index);
+                continue;
+            }
+            results.set(pending.get(i), playerResult);
+            snapshots.get(i).remember(playerResult);
+        }
+        results.removeIf(Objects::isNull);
+        frame.result.addAll(results);
+    }
+
+    /**
+     * verify 이면 프로필에서 받은 자리이므로 금액이 읽히지 않을 때 결과 대신 null 을 돌려준다.
+     */
+    private PlayerOcrExecutor.EngineTask<TextWithCoordinates> playerTask(String userId, Frame frame, DynamicTextRegionFinder.Player player, Rectangle region, boolean verify) {
+        return engine -> {
+            BufferedImage crop = frame.prepared.crop(region);
+            debugImageArchiver.archive(crop, String.format("%s_%s_player_%d.png", frame.fileNamePrefix, frame.timestamp, player.getIndex()));
+
+            Timer.Sample playerSample = Timer.start(meterRegistry);
+            String rawText;
+            try {
+                rawText = engine.doOCR(frame.prepared.image(), frame.prepared.scale(region)).trim();
+                frame.ocrCalls.increment();
+            } finally {
+                playerSample.stop(meterRegistry.timer("ocr.player"));
+            }
+            var recognizedText = OcrPostProcessor.process(rawText);
+
+            LOGGER.info("player {} recognizedText : {}", player.getIndex(), recognizedText);
+            if (verify && !DynamicTextRegionFinder.Player.hasAmount(recognizedText)) {
+                LOGGER.warn("player {} from layout profile is not readable : {}", player.getIndex(), recognizedText);
+                return null;
+            }
+
+            String displayText = player.getDisplayText(recognizedText);
+            recognitionHistory.record(userId, crop, displayText);
+            return new TextWithCoordinates(
+                    displayText,
+                    region.x,
+                    region.y,
+                    region.width,
+                    region.height
+            );
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        decodeExecutor.shutdownNow();
+    }
+
+    private static final class Frame {
+        private final String fileNamePrefix;
+        private final String timestamp;
+        // 이 프레임에서 실행한 Tesseract 호출 수 (check + calibration + player)
+        private final LongAdder ocrCalls = new LongAdder();
+        private final List<TextWithCoordinates> result = new ArrayList<>();
+        // decode 가 채움. 읽지 못한 프레임은 null
+        private BufferedImage image;
+        private FramePreprocessor.Prepared prepared;
+
+        private Frame(String fileNamePrefix, String timestamp) {
+            this.fileNamePrefix = fileNamePrefix;
+            this.timestamp = timestamp;
+        }
+    }
+}
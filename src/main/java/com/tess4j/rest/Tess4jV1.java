@@ -1,126 +1,166 @@
 package com.tess4j.rest;
 
-import com.tess4j.rest.repository.UserRepository;
-import net.sourceforge.tess4j.Tesseract;
-import net.sourceforge.tess4j.TesseractException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tess4j.rest.repository.ImageSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 @SpringBootApplication
 @RestController
 public class Tess4jV1 {
 
-  private Logger LOGGER = LoggerFactory.getLogger(Tess4jV1.class);
+  @Autowired
+  private UserSessionCache userSessionCache;
+
+  @Autowired
+  private ScreenRecognitionService screenRecognitionService;
+
+  @Autowired
+  private RecognitionHistory recognitionHistory;
 
   @Autowired
-  private UserRepository userRepository;
+  private RecognitionResultRing recognitionResultRing;
+
+  @Autowired
+  private ObjectMapper objectMapper;
 
   public static final String SUBIMAGE_STORAGE_PATH = "/";
 
   @PostMapping(value = "ocr/v1/recognize-screen", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   public ResponseEntity<List<TextWithCoordinates>> recognizeScreen(@RequestParam("file") MultipartFile file,
                                                                    @RequestParam("userId") String userId, @RequestParam("userPassword") String userPassword) {
-    List<TextWithCoordinates> result = new ArrayList<>();
-
-    var loginUser = userRepository.findByUserIdAndUserPassword(userId, userPassword);
+    var loginUser = userSessionCache.login(userId, userPassword);
 
     if (loginUser.isEmpty()) {
-      result.add(new TextWithCoordinates(
-              "FAIL TO LOGIN", 0, 0, 0, 0
-      ));
-      return ResponseEntity.ok(result);
+      return ResponseEntity.ok(loginFailed());
     }
 
-    try {
-      BufferedImage image = ImageIO.read(file.getInputStream());
-      Tesseract tesseract = new Tesseract();
-      tesseract.setLanguage("kor+eng");
-
-      String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-
-      var checkRegion = new Rectangle(image.getWidth()/3, image.getHeight()/2, image.getWidth()/5, image.getWidth()/10);
-      BufferedImage checkImage = image.getSubimage(checkRegion.x, checkRegion.y, checkRegion.width, checkRegion.height);
-      String checkText = tesseract.doOCR(checkImage).trim();
-      if (!checkText.contains("Total")) {
-        String subImageFileName = String.format("%s_%s_scanning.png", userId, timestamp);
-        File outputFile = new File(SUBIMAGE_STORAGE_PATH + subImageFileName);
-        ImageIO.write(checkImage, "png", outputFile);
-        result.add(new TextWithCoordinates(
-                "SCANNING...", 0, 0, 0, 0
-        ));
-        return ResponseEntity.ok(result);
-      }
+    return ResponseEntity.ok(screenRecognitionService.recognize(loginUser.get(), List.of(file)).get(0));
+  }
 
-      // check 후에 단일라인 모드로 설정해야함
-      tesseract.setPageSegMode(7);
-      tesseract.setOcrEngineMode(1);
+  /**
+   * recognize-screen 과 같지만, since (직전 응답의 sequence) 이후 글자나 좌표가 바뀐 영역만 돌려준다.
+   * since 를 주지 않았거나 서버가 그 결과를 더 이상 들고 있지 않으면 full = true 로 전체를 돌려준다.
+   */
+  @PostMapping(value = "ocr/v1/recognize-screen-delta", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<RecognitionResultRing.Delta> recognizeScreenDelta(@RequestParam("file") MultipartFile file,
+                                                                          @RequestParam("userId") String userId, @RequestParam("userPassword") String userPassword,
+                                                                          @RequestParam(value = "since", defaultValue = "0") long since) {
+    var loginUser = userSessionCache.login(userId, userPassword);
 
-      var players = loginUser.get().getPlayers();
+    if (loginUser.isEmpty()) {
+      return ResponseEntity.ok(new RecognitionResultRing.Delta(0, true, loginFailed(), List.of()));
+    }
 
-      if (players.size() < 9) {
-          DynamicTextRegionFinder regionFinder = new DynamicTextRegionFinder();
-        players.addAll(regionFinder.findDynamicRegions(image, players));
-        players.sort(Comparator.comparing(DynamicTextRegionFinder.Player::getIndex));
+    var result = screenRecognitionService.recognize(loginUser.get(), List.of(file)).get(0);
+    return ResponseEntity.ok(recognitionResultRing.record(userId, result, since));
+  }
+
+  /**
+   * 여러 프레임을 한 번에 인식한다. 로그인과 좌표 저장은 배치당 한 번, 결과는 프레임 순서대로.
+   */
+  @PostMapping(value = "ocr/v1/recognize-screens", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<List<List<TextWithCoordinates>>> recognizeScreens(@RequestParam("files") List<MultipartFile> files,
+                                                                          @RequestParam("userId") String userId, @RequestParam("userPassword") String userPassword) {
+    var loginUser = userSessionCache.login(userId, userPassword);
+
+    if (loginUser.isEmpty()) {
+      List<List<TextWithCoordinates>> result = new ArrayList<>(files.size());
+      for (int i = 0; i < files.size(); i++) {
+        result.add(loginFailed());
       }
+      return ResponseEntity.ok(result);
+    }
 
-      for (DynamicTextRegionFinder.Player player : players) {
-        Rectangle region = player.toAbsoluteRectangle(image.getWidth(), image.getHeight());
-        BufferedImage regionImage = image.getSubimage(region.x, region.y, region.width, region.height);
+    return ResponseEntity.ok(screenRecognitionService.recognize(loginUser.get(), files));
+  }
 
-        String subImageFileName = String.format("%s_%s_player_%d.png", userId, timestamp, player.index);
-        File outputFile = new File(SUBIMAGE_STORAGE_PATH + subImageFileName);
-        ImageIO.write(regionImage, "png", outputFile);
+  /**
+   * 인식 기록 한 페이지 (최신순). 이미지는 imageHash 로 따로 받는다.
+   * 기록 조회(GET)는 로그인 정보를 X-User-Id / X-User-Password 헤더로 받는다.
+   */
+  @GetMapping("ocr/v1/history")
+  public ResponseEntity<Page<ImageSummary>> history(@RequestHeader(UserSessionCache.USER_ID_HEADER) String userId, @RequestHeader(UserSessionCache.USER_PASSWORD_HEADER) String userPassword,
+                                                    @RequestParam(value = "page", defaultValue = "0") int page,
+                                                    @RequestParam(value = "size", defaultValue = "50") int size) {
+    var loginUser = userSessionCache.login(userId, userPassword);
 
-        String rawText = tesseract.doOCR(regionImage).trim();
-        var recognizedText = OcrPostProcessor.process(rawText);
+    if (loginUser.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
 
-        LOGGER.info("player {} recognizedText : {}", player.index, recognizedText);
+    var pageable = PageRequest.of(page, Math.min(size, 500), Sort.by(Sort.Direction.DESC, "id"));
+    return ResponseEntity.ok(recognitionHistory.page(userId, pageable));
+  }
 
-        String displayText = player.getDisplayText(recognizedText);
-        result.add(new TextWithCoordinates(
-                displayText,
-                region.x,
-                region.y,
-                region.width,
-                region.height
-        ));
-      }
-      if (!players.isEmpty()) {
-        LOGGER.info("player coordinates 저장 : {}", players.toArray());
-        loginUser.get().setPlayers(players);
-        userRepository.save(loginUser.get());
-      }
-    } catch (IOException | TesseractException e) {
-      e.printStackTrace();
+  /**
+   * 인식 기록 전체를 한 줄에 하나씩 JSON 으로 내려준다 (NDJSON). 기록 수와 상관없이 메모리에 모으지 않는다.
+   */
+  @GetMapping("ocr/v1/history/export")
+  public ResponseEntity<StreamingResponseBody> exportHistory(@RequestHeader(UserSessionCache.USER_ID_HEADER) String userId, @RequestHeader(UserSessionCache.USER_PASSWORD_HEADER) String userPassword) {
+    var loginUser = userSessionCache.login(userId, userPassword);
+
+    if (loginUser.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
-    if (result.isEmpty()) {
-      result.add(new TextWithCoordinates(
-              "READY", 0, 0, 0, 0
-      ));
+    StreamingResponseBody body = output -> {
+      try {
+        recognitionHistory.forEach(userId, summary -> {
+          try {
+            output.write(objectMapper.writeValueAsBytes(summary));
+            output.write('\n');
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  @GetMapping("ocr/v1/history/images/{hash}")
+  public ResponseEntity<byte[]> historyImage(@PathVariable("hash") String hash,
+                                             @RequestHeader(UserSessionCache.USER_ID_HEADER) String userId, @RequestHeader(UserSessionCache.USER_PASSWORD_HEADER) String userPassword) {
+    var loginUser = userSessionCache.login(userId, userPassword);
+
+    if (loginUser.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
-    return ResponseEntity.ok(result);
+    return recognitionHistory.image(userId, hash)
+            .map(blob -> ResponseEntity.ok().contentType(MediaType.IMAGE_PNG).body(blob.getData()))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  private static List<TextWithCoordinates> loginFailed() {
+    List<TextWithCoordinates> result = new ArrayList<>();
+    result.add(new TextWithCoordinates(
+            "FAIL TO LOGIN", 0, 0, 0, 0
+    ));
+    return result;
   }
 
   static class TextWithCoordinates {
@@ -0,0 +1,156 @@
+package com.tess4j.rest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.sourceforge.tess4j.TesseractException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 설정별로 크기가 제한된 OCR 엔진 풀. 엔드포인트와 {@link DynamicTextRegionFinder} 가 함께 사용한다.
+ * 빌린 엔진은 반드시 {@link #release(OcrEngine)} 로 돌려줘야 한다.
+ */
+@Component
+public class TesseractPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TesseractPool.class);
+
+    private final int maxPerConfig;
+    private final long maxWaitMillis;
+    private final int warmupPerConfig;
+    private final OcrConcurrencyLimiter limiter;
+    private final MeterRegistry meterRegistry;
+    private final Map<OcrEngineConfig, Slot> slots = new ConcurrentHashMap<>();
+
+    public TesseractPool(@Value("${ocr.pool.size-per-config:0}") int sizePerConfig,
+                         @Value("${ocr.pool.max-wait-ms:5000}") long maxWaitMillis,
+                         @Value("${ocr.pool.warmup-per-config:1}") int warmupPerConfig,
+                         OcrConcurrencyLimiter limiter,
+                         MeterRegistry meterRegistry) {
+        // 0 이면 코어 수만큼
+        this.maxPerConfig = sizePerConfig > 0 ? sizePerConfig : Runtime.getRuntime().availableProcessors();
+        this.maxWaitMillis = maxWaitMillis;
+        this.warmupPerConfig = Math.min(warmupPerConfig, this.maxPerConfig);
+        this.limiter = limiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        for (OcrEngineConfig config : List.of(OcrEngineConfig.CHECK, OcrEngineConfig.SINGLE_LINE)) {
+            Slot slot = slot(config);
+            try {
+                for (int i = 0; i < warmupPerConfig; i++) {
+                    slot.created.incrementAndGet();
+                    slot.idle.offer(new OcrEngine(config, limiter));
+                }
+                LOGGER.info("OCR engine pool warmed : {} x {}", config.tag(), warmupPerConfig);
+            } catch (RuntimeException e) {
+                slot.created.decrementAndGet();
+                LOGGER.warn("OCR engine warm up failed for {} : {}", config.tag(), e.getMessage());
+            }
+        }
+    }
+
+    public OcrEngine borrow(OcrEngineConfig config) throws TesseractException {
+        Slot slot = slot(config);
+        OcrEngine engine = slot.idle.poll();
+        if (engine != null) {
+            slot.waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return engine;
+        }
+        if (slot.tryReserve()) {
+            try {
+                return new OcrEngine(config, limiter);
+            } catch (RuntimeException e) {
+                slot.created.decrementAndGet();
+                throw new TesseractException(e);
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            engine = slot.idle.poll(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TesseractException(e);
+        } finally {
+            slot.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (engine == null) {
+            meterRegistry.counter("ocr.pool.timeouts", "config", config.tag()).increment();
+            throw new TesseractException("No OCR engine available for " + config.tag() + " within " + maxWaitMillis + "ms");
+        }
+        return engine;
+    }
+
+    public void release(OcrEngine engine) {
+        if (engine != null) {
+            slot(engine.getConfig()).idle.offer(engine);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Slot slot : slots.values()) {
+            OcrEngine engine;
+            while ((engine = slot.idle.poll()) != null) {
+                engine.close();
+            }
+        }
+    }
+
+    private Slot slot(OcrEngineConfig config) {
+        return slots.computeIfAbsent(config, this::newSlot);
+    }
+
+    private Slot newSlot(OcrEngineConfig config) {
+        Slot slot = new Slot(Timer.builder("ocr.pool.wait")
+                .description("Time spent waiting to borrow an OCR engine")
+                .tag("config", config.tag())
+                .register(meterRegistry));
+        Gauge.builder("ocr.pool.engines", slot.created, AtomicInteger::get)
+                .tag("config", config.tag()).tag("state", "total")
+                .register(meterRegistry);
+        Gauge.builder("ocr.pool.engines", slot.idle, BlockingQueue::size)
+                .tag("config", config.tag()).tag("state", "idle")
+                .register(meterRegistry);
+        Gauge.builder("ocr.pool.engines", () -> maxPerConfig)
+                .tag("config", config.tag()).tag("state", "max")
+                .register(meterRegistry);
+        return slot;
+    }
+
+    private final class Slot {
+        final BlockingQueue<OcrEngine> idle = new LinkedBlockingQueue<>();
+        final AtomicInteger created = new AtomicInteger();
+        final Timer waitTimer;
+
+        Slot(Timer waitTimer) {
+            this.waitTimer = waitTimer;
+        }
+
+        boolean tryReserve() {
+            int current;
+            do {
+                current = created.get();
+                if (current >= maxPerConfig) {
+                    return false;
+                }
+            } while (!created.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.tess4j.rest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * check 영역이 "Total" 화면인지 OCR 없이 판단한다.
+ * OCR 로 확인한 check 영역의 휘도 격자를 사용자와 해상도별로 "Total" / "Total 아님" 템플릿으로 배워 두고,
+ * 새 프레임과의 정규화 상호상관(NCC)으로 한쪽 템플릿과 확실히 같을 때만 그 결과를 쓴다. 어느 쪽과도 확실히 같지 않으면
+ * UNKNOWN (OCR 로 확인). 확실한 판정도 verify-rate 비율만큼은 UNKNOWN 으로 돌려 OCR 결과로 템플릿을 바로잡는다.
+ */
+@Component
+public class TotalScreenGate {
+
+    public enum Verdict {
+        TOTAL, NOT_TOTAL, UNKNOWN
+    }
+
+    // 이 이상 비슷한 템플릿이 이미 있으면 새로 배우지 않음
+    private static final double DUPLICATE_SCORE = 0.98;
+
+    private final boolean enabled;
+    private final double acceptScore;
+    private final double verifyRate;
+    private final int maxTemplates;
+    // "userId@너비x높이" 별 템플릿
+    private final Cache<String, Templates> templates;
+    private final Counter total;
+    private final Counter notTotal;
+    private final Counter unknown;
+    private final Counter verify;
+    private final Counter evicted;
+
+    public TotalScreenGate(@Value("${ocr.total-gate.enabled:true}") boolean enabled,
+                           @Value("${ocr.total-gate.accept-score:0.92}") double acceptScore,
+                           @Value("${ocr.total-gate.verify-rate:0.05}") double verifyRate,
+                           @Value("${ocr.total-gate.max-templates:8}") int maxTemplates,
+                           @Value("${ocr.total-gate.max-users:10000}") long maxUsers,
+                           @Value("${ocr.total-gate.ttl:1h}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.acceptScore = acceptScore;
+        this.verifyRate = verifyRate;
+        this.maxTemplates = maxTemplates;
+        this.templates = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .maximumSize(maxUsers)
+                .build();
+        this.total = meterRegistry.counter("ocr.total.gate", "verdict", "total");
+        this.notTotal = meterRegistry.counter("ocr.total.gate", "verdict", "not_total");
+        this.unknown = meterRegistry.counter("ocr.total.gate", "verdict", "unknown");
+        this.verify = meterRegistry.counter("ocr.total.gate", "verdict", "verify");
+        this.evicted = meterRegistry.counter("ocr.total.gate.evicted");
+    }
+
+    public Verdict check(String userId, BufferedImage image, Rectangle region) {
+        Templates learned = enabled ? templates.getIfPresent(key(userId, image)) : null;
+        if (learned == null || (learned.total.isEmpty() && learned.other.isEmpty())) {
+            unknown.increment();
+            return Verdict.UNKNOWN;
+        }
+        float[] candidate = normalize(FrameChangeDetector.signature(image, region));
+        double totalScore = bestScore(learned.total, candidate);
+        double otherScore = bestScore(learned.other, candidate);
+        Verdict verdict;
+        if (totalScore >= acceptScore && totalScore > otherScore) {
+            verdict = Verdict.TOTAL;
+        } else if (otherScore >= acceptScore && otherScore > totalScore) {
+            verdict = Verdict.NOT_TOTAL;
+        } else {
+            // 배운 템플릿과 다르다는 것만으로는 판단하지 않음 (처음 보는 화면)
+            unknown.increment();
+            return Verdict.UNKNOWN;
+        }
+        if (ThreadLocalRandom.current().nextDouble() < verifyRate) {
+            verify.increment();
+            return Verdict.UNKNOWN;
+        }
+        (verdict == Verdict.TOTAL ? total : notTotal).increment();
+        return verdict;
+    }
+
+    /**
+     * OCR 로 확인한 check 영역을 템플릿으로 추가한다. 종류별로 가장 오래된 템플릿부터 밀려난다.
+     * 반대 종류 템플릿 중 이 영역과 확실히 같다고 판정했을 것은 틀린 템플릿이므로 버린다.
+     */
+    public void learn(String userId, BufferedImage image, Rectangle region, boolean isTotal) {
+        if (!enabled) {
+            return;
+        }
+        float[] template = normalize(FrameChangeDetector.signature(image, region));
+        if (template == null) {
+            return;
+        }
+        Templates learned = templates.get(key(userId, image), key -> new Templates());
+        List<float[]> same = isTotal ? learned.total : learned.other;
+        List<float[]> opposite = isTotal ? learned.other : learned.total;
+        if (opposite.removeIf(existing -> score(existing, template) >= acceptScore)) {
+            evicted.increment();
+        }
+        if (bestScore(same, template) >= DUPLICATE_SCORE) {
+            return;
+        }
+        same.add(template);
+        while (same.size() > maxTemplates) {
+            same.remove(0);
+        }
+    }
+
+    private static String key(String userId, BufferedImage image) {
+        return userId + "@" + image.getWidth() + "x" + image.getHeight();
+    }
+
+    private static double bestScore(List<float[]> templates, float[] candidate) {
+        if (candidate == null) {
+            // 단색 영역은 상관을 계산할 수 없음 (로딩 화면 등)
+            return 0;
+        }
+        double best = -1;
+        for (float[] template : templates) {
+            best = Math.max(best, score(template, candidate));
+        }
+        return best;
+    }
+
+    private static double score(float[] template, float[] candidate) {
+        double score = 0;
+        for (int i = 0; i < template.length; i++) {
+            score += template[i] * candidate[i];
+        }
+        return score;
+    }
+
+    /**
+     * 평균을 빼고 길이 1 로 맞춘 벡터. 두 벡터의 내적이 곧 NCC 가 된다. 분산이 없으면 null.
+     */
+    static float[] normalize(byte[] signature) {
+        double mean = 0;
+        for (byte value : signature) {
+            mean += value & 0xFF;
+        }
+        mean /= signature.length;
+        double norm = 0;
+        for (byte value : signature) {
+            double d = (value & 0xFF) - mean;
+            norm += d * d;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        norm = Math.sqrt(norm);
+        float[] normalized = new float[signature.length];
+        for (int i = 0; i < signature.length; i++) {
+            normalized[i] = (float) (((signature[i] & 0xFF) - mean) / norm);
+        }
+        return normalized;
+    }
+
+    private static final class Templates {
+        private final List<float[]> total = new CopyOnWriteArrayList<>();
+        private final List<float[]> other = new CopyOnWriteArrayList<>();
+    }
+}
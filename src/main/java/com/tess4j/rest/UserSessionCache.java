@@ -0,0 +1,86 @@
+package com.tess4j.rest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tess4j.rest.model.User;
+import com.tess4j.rest.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 로그인한 사용자와 플레이어 좌표를 메모리에 캐시한다.
+ * 매 프레임 DB 를 조회하지 않고, 좌표는 플레이어 구성이 실제로 바뀐 경우에만 저장한다.
+ */
+@Component
+public class UserSessionCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserSessionCache.class);
+    // URL 에 넣으면 access / proxy 로그에 남으므로 GET 과 WebSocket 연결은 로그인 정보를 헤더로 받는다
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_PASSWORD_HEADER = "X-User-Password";
+
+    private final UserRepository userRepository;
+    private final Cache<Credentials, User> users;
+    private final Timer loadTimer;
+    private final Timer saveTimer;
+
+    public UserSessionCache(UserRepository userRepository,
+                            @Value("${ocr.user-cache.ttl:10m}") Duration ttl,
+                            @Value("${ocr.user-cache.max-size:10000}") long maxSize,
+                            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+        this.loadTimer = Timer.builder("ocr.db.load").description("User lookup on cache miss").register(meterRegistry);
+        this.saveTimer = Timer.builder("ocr.db.save").description("Player layout save").register(meterRegistry);
+    }
+
+    /**
+     * 로그인 실패는 캐시하지 않는다.
+     */
+    public Optional<User> login(String userId, String userPassword) {
+        return Optional.ofNullable(users.get(new Credentials(userId, userPassword),
+                credentials -> loadTimer.record(() -> userRepository.findByUserIdAndUserPassword(credentials.userId(), credentials.userPassword()).orElse(null))));
+    }
+
+    /**
+     * 캐시된 사용자의 좌표를 수정해도 되는 사본으로 돌려준다.
+     */
+    public PlayerLayout players(User user) {
+        return user.getPlayers().copy();
+    }
+
+    /**
+     * players 를 사용자의 현재 좌표에 합쳐서, 새 index 가 생긴 경우에만 DB 에 저장한다.
+     * 요청 스레드와 백그라운드 calibration 이 동시에 불러도 서로 찾은 좌표를 덮어쓰지 않는다.
+     */
+    public synchronized void updatePlayers(User user, PlayerLayout players) {
+        Credentials credentials = new Credentials(user.getUserId(), user.getUserPassword());
+        // 다른 스레드가 먼저 저장했으면 캐시에 든 쪽이 최신
+        User current = users.getIfPresent(credentials);
+        User target = current != null ? current : user;
+        PlayerLayout merged = target.getPlayers().copy();
+        if (merged.addAll(players) == 0) {
+            return;
+        }
+        LOGGER.info("player coordinates 저장 : {}", merged);
+        target.setPlayers(merged);
+        user.setPlayers(merged);
+        User saved = saveTimer.record(() -> userRepository.save(target));
+        users.put(credentials, saved);
+    }
+
+    private record Credentials(String userId, String userPassword) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.tess4j.rest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+import java.time.Duration;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final RecognitionSessionHandler recognitionSessionHandler;
+    private final DataSize maxFrameSize;
+    private final Duration idleTimeout;
+
+    public WebSocketConfig(RecognitionSessionHandler recognitionSessionHandler,
+                           @Value("${ocr.stream.max-frame-size:20MB}") DataSize maxFrameSize,
+                           @Value("${ocr.stream.idle-timeout:5m}") Duration idleTimeout) {
+        this.recognitionSessionHandler = recognitionSessionHandler;
+        this.maxFrameSize = maxFrameSize;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(recognitionSessionHandler, "ocr/v1/recognize-stream");
+    }
+
+    /**
+     * 스크린샷 한 장이 바이너리 메시지 하나로 오므로 기본 버퍼(8KB)를 프레임 크기만큼 늘림
+     */
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize((int) maxFrameSize.toBytes());
+        container.setMaxSessionIdleTimeout(idleTimeout.toMillis());
+        return container;
+    }
+}
@@ -2,8 +2,16 @@ package com.tess4j.rest.model;
 
 import jakarta.persistence.*;
 
+import java.time.Instant;
+
 @Entity
-@Table(name = "images")
+@Table(name = "images", indexes = {
+    @Index(name = "images_user_id_idx", columnList = "user_id, id"),
+    // 보관 기간이 지난 기록 정리 (RecognitionHistory.cleanup)
+    @Index(name = "images_created_at_idx", columnList = "created_at"),
+    // 정리 후 아무도 가리키지 않는 image_blobs 찾기
+    @Index(name = "images_image_hash_idx", columnList = "image_hash")
+})
 public class Image {
 
   @Id
@@ -13,16 +21,23 @@ public class Image {
   @Column(name = "user_id")
   private String userId;
 
+  // 예전 행만 본문을 직접 가짐. 새 행은 imageHash 로 image_blobs 를 가리킴
   @Lob
   @Column(name = "image_data")
   private byte[] image;
 
+  @Column(name = "image_hash", length = 64)
+  private String imageHash;
+
   @Column(name = "extension")
   private String extension;
 
   @Column(name = "text", columnDefinition = "TEXT")
   private String text;
 
+  @Column(name = "created_at")
+  private Instant createdAt;
+
   // Getters and setters
 
   public Long getId() {
@@ -49,6 +64,14 @@ public class Image {
     this.image = image;
   }
 
+  public String getImageHash() {
+    return imageHash;
+  }
+
+  public void setImageHash(String imageHash) {
+    this.imageHash = imageHash;
+  }
+
   public String getExtension() {
     return extension;
   }
@@ -65,6 +88,14 @@ public class Image {
     this.text = text;
   }
 
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
   @Override
   public String toString() {
     return String.format(
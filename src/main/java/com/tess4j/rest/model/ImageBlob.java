@@ -0,0 +1,28 @@
+package com.tess4j.rest.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+/**
+ * 인식 기록의 이미지 본문. 내용의 sha-256 으로 저장해 같은 이미지는 한 번만 저장된다.
+ * {@link Image} 는 해시만 들고 있고, 본문은 필요할 때만 이 테이블에서 읽는다.
+ */
+@Getter
+@Entity
+@Table(name = "image_blobs")
+public class ImageBlob {
+
+  // sha-256 hex
+  @Id
+  @Column(name = "hash", length = 64)
+  private String hash;
+
+  @Column(name = "extension")
+  private String extension;
+
+  @Column(name = "data", columnDefinition = "bytea")
+  private byte[] data;
+
+  protected ImageBlob() {
+  }
+}
@@ -0,0 +1,37 @@
+package com.tess4j.rest.model;
+
+import com.tess4j.rest.PlayerLayout;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * 화면 비율별로 학습한 플레이어 좌표. 같은 비율의 화면을 쓰는 사용자끼리 공유한다.
+ */
+@Getter
+@Entity
+@Table(name = "layout_profiles")
+public class LayoutProfile {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  // 가로/세로 비율 (소수 둘째 자리, 예: "1.78")
+  @Column(name = "aspect", unique = true)
+  private String aspect;
+
+  @Setter
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(columnDefinition = "jsonb")
+  private PlayerLayout players = new PlayerLayout();
+
+  protected LayoutProfile() {
+  }
+
+  public LayoutProfile(String aspect) {
+    this.aspect = aspect;
+  }
+}
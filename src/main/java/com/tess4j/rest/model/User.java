@@ -1,15 +1,12 @@
 package com.tess4j.rest.model;
 
-import com.tess4j.rest.DynamicTextRegionFinder;
+import com.tess4j.rest.PlayerLayout;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Getter
 @Entity
 @Table(name = "users")
@@ -28,6 +25,6 @@ public class User {
   @Setter
   @JdbcTypeCode(SqlTypes.JSON)
   @Column(columnDefinition = "jsonb")
-  private List<DynamicTextRegionFinder.Player> players = new ArrayList<>();
+  private PlayerLayout players = new PlayerLayout();
 
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.tess4j.rest.repository;
+
+import com.tess4j.rest.model.ImageBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+}
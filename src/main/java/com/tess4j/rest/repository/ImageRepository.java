@@ -1,11 +1,21 @@
 package com.tess4j.rest.repository;
 
 import com.tess4j.rest.model.Image;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import java.util.List;
+import java.util.stream.Stream;
 
 public interface ImageRepository extends JpaRepository<Image, Long> {
 
-  List<Image> findByUserId(String userId);
-}
\ No newline at end of file
+  Page<ImageSummary> findByUserId(String userId, Pageable pageable);
+
+  // 트랜잭션 안에서 닫을 때까지 fetch size 단위로 읽음
+  @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+  Stream<ImageSummary> streamByUserIdOrderById(String userId);
+
+  boolean existsByUserIdAndImageHash(String userId, String imageHash);
+}
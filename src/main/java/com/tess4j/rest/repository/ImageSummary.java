@@ -0,0 +1,21 @@
+package com.tess4j.rest.repository;
+
+import java.time.Instant;
+
+/**
+ * 이미지 본문 없이 읽는 인식 기록 한 줄.
+ */
+public interface ImageSummary {
+
+  Long getId();
+
+  String getUserId();
+
+  String getExtension();
+
+  String getText();
+
+  String getImageHash();
+
+  Instant getCreatedAt();
+}
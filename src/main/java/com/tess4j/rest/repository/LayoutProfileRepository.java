@@ -0,0 +1,11 @@
+package com.tess4j.rest.repository;
+
+import com.tess4j.rest.model.LayoutProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface LayoutProfileRepository extends JpaRepository<LayoutProfile, Long> {
+
+  Optional<LayoutProfile> findByAspect(String aspect);
+}
@@ -0,0 +1,63 @@
+/* (C) 2024 */
+package com.tess4j.rest;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import org.junit.jupiter.api.Test;
+
+public class FrameChangeDetectorTest {
+
+  private static final Rectangle REGION = new Rectangle(20, 10, 640, 48);
+
+  private final FrameChangeDetector detector = new FrameChangeDetector(true, 12, 10, new SimpleMeterRegistry());
+
+  @Test
+  public void reusesResultForIdenticalRegion() {
+    remember(player("12,459"));
+
+    assertNotNull(detector.capture("user", "player-1", player("12,459"), REGION).previous());
+  }
+
+  @Test
+  public void detectsSingleChangedDigit() {
+    remember(player("12,459"));
+
+    assertNull(detector.capture("user", "player-1", player("12,458"), REGION).previous());
+  }
+
+  @Test
+  public void ignoresSmallPixelNoise() {
+    remember(player("12,459"));
+    BufferedImage noisy = player("12,459");
+    for (int y = 0; y < noisy.getHeight(); y++) {
+      for (int x = y % 2; x < noisy.getWidth(); x += 2) {
+        int gray = Math.min(255, (noisy.getRGB(x, y) & 0xFF) + 4);
+        noisy.setRGB(x, y, new Color(gray, gray, gray).getRGB());
+      }
+    }
+
+    assertNotNull(detector.capture("user", "player-1", noisy, REGION).previous());
+  }
+
+  private void remember(BufferedImage image) {
+    detector.capture("user", "player-1", image, REGION)
+        .remember(new Tess4jV1.TextWithCoordinates("[Player 1] 12,459", REGION.x, REGION.y, REGION.width, REGION.height));
+  }
+
+  private static BufferedImage player(String amount) {
+    BufferedImage image = new BufferedImage(700, 70, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setColor(new Color(0x1E2A22));
+    g.fillRect(0, 0, image.getWidth(), image.getHeight());
+    g.setColor(Color.WHITE);
+    g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+    g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    g.drawString("player1   " + amount, REGION.x + 6, REGION.y + 19);
+    g.dispose();
+    return image;
+  }
+}
@@ -0,0 +1,43 @@
+/* (C) 2024 */
+package com.tess4j.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import org.junit.jupiter.api.Test;
+
+public class FramePreprocessorTest {
+
+  @Test
+  public void binaryModeSplitsDarkTextFromLightBackground() {
+    BufferedImage image = new BufferedImage(4, 1, BufferedImage.TYPE_INT_ARGB);
+    image.setRGB(0, 0, 0xFF202020);
+    image.setRGB(1, 0, 0xFF303030);
+    image.setRGB(2, 0, 0xFFD0D0D0);
+    image.setRGB(3, 0, 0xFFE0E0E0);
+
+    var preprocessor = new FramePreprocessor(FramePreprocessor.Mode.BINARY, 1, 1, new SimpleMeterRegistry());
+    BufferedImage prepared = preprocessor.prepare(image).image();
+
+    assertEquals(BufferedImage.TYPE_BYTE_GRAY, prepared.getType());
+    assertEquals(0, prepared.getRaster().getSample(0, 0, 0));
+    assertEquals(0, prepared.getRaster().getSample(1, 0, 0));
+    assertEquals(255, prepared.getRaster().getSample(2, 0, 0));
+    assertEquals(255, prepared.getRaster().getSample(3, 0, 0));
+  }
+
+  @Test
+  public void cropUsesOriginalFrameCoordinates() {
+    BufferedImage image = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+
+    var preprocessor = new FramePreprocessor(FramePreprocessor.Mode.GRAY, 2, 1, new SimpleMeterRegistry());
+    var prepared = preprocessor.prepare(image);
+    BufferedImage crop = prepared.crop(new Rectangle(10, 5, 20, 10));
+
+    assertEquals(80, prepared.image().getWidth());
+    assertEquals(40, crop.getWidth());
+    assertEquals(20, crop.getHeight());
+  }
+}
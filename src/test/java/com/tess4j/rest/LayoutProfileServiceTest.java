@@ -0,0 +1,100 @@
+/* (C) 2024 */
+package com.tess4j.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.tess4j.rest.model.LayoutProfile;
+import com.tess4j.rest.repository.LayoutProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LayoutProfileServiceTest {
+
+  private LayoutProfileService service;
+
+  @BeforeEach
+  public void setUp() {
+    LayoutProfileRepository repository = mock(LayoutProfileRepository.class);
+    when(repository.findByAspect(anyString())).thenReturn(Optional.empty());
+    when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0, LayoutProfile.class));
+    service = new LayoutProfileService(repository, true, 3, 0.01, Duration.ofDays(1), new SimpleMeterRegistry());
+  }
+
+  @Test
+  public void promotesSeatOnlyAfterEnoughUsersAgree() {
+    service.learn("a", 1920, 1080, layout(player(2, 0.200)));
+    service.learn("a", 1920, 1080, layout(player(2, 0.200)));
+    service.learn("b", 1920, 1080, layout(player(2, 0.205)));
+    assertTrue(service.complete("d", 1920, 1080, new PlayerLayout()).isEmpty());
+
+    service.learn("c", 1920, 1080, layout(player(2, 0.195)));
+    var players = new PlayerLayout();
+
+    assertEquals(Set.of(2), service.complete("d", 1920, 1080, players));
+    assertEquals(0.200, players.get(2).getX());
+  }
+
+  @Test
+  public void doesNotPromoteDisagreeingSeats() {
+    service.learn("a", 1920, 1080, layout(player(2, 0.2)));
+    service.learn("b", 1920, 1080, layout(player(2, 0.3)));
+    service.learn("c", 1920, 1080, layout(player(2, 0.4)));
+
+    assertTrue(service.complete("d", 1920, 1080, new PlayerLayout()).isEmpty());
+  }
+
+  @Test
+  public void rejectedSeatIsOnlyWithheldFromTheRejectingUser() {
+    for (String user : List.of("a", "b", "c")) {
+      service.learn(user, 1920, 1080, layout(player(2, 0.2), player(5, 0.5)));
+    }
+
+    service.reject("d", 1920, 1080, 5);
+    service.reject("d", 1920, 1080, 5);
+
+    assertEquals(Set.of(2), service.complete("d", 1920, 1080, new PlayerLayout()));
+    assertEquals(Set.of(2, 5), service.complete("e", 1920, 1080, new PlayerLayout()));
+  }
+
+  @Test
+  public void seatIsRemovedAfterEnoughUsersReject() {
+    for (String user : List.of("a", "b", "c")) {
+      service.learn(user, 1920, 1080, layout(player(2, 0.2), player(5, 0.5)));
+    }
+
+    service.reject("d", 1920, 1080, 5);
+    service.reject("e", 1920, 1080, 5);
+    service.reject("f", 1920, 1080, 5);
+    var players = new PlayerLayout();
+
+    assertEquals(Set.of(2), service.complete("g", 1920, 1080, players));
+    assertFalse(players.contains(5));
+  }
+
+  @Test
+  public void amountMustPrecedeBaek() {
+    assertTrue(DynamicTextRegionFinder.Player.hasAmount("player1 12,459백만 실버"));
+    assertTrue(DynamicTextRegionFinder.Player.hasAmount("12,459 백만 실버 player3"));
+    assertFalse(DynamicTextRegionFinder.Player.hasAmount("player1 백만"));
+    assertFalse(DynamicTextRegionFinder.Player.hasAmount(""));
+  }
+
+  private static PlayerLayout layout(DynamicTextRegionFinder.Player... players) {
+    return PlayerLayout.of(List.of(players));
+  }
+
+  private static DynamicTextRegionFinder.Player player(int index, double x) {
+    return new DynamicTextRegionFinder.Player(index, x, 0.5, 0.2, 0.03);
+  }
+}
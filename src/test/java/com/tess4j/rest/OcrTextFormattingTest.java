@@ -0,0 +1,37 @@
+/* (C) 2024 */
+package com.tess4j.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class OcrTextFormattingTest {
+
+  @Test
+  public void processCollapsesWhitespaceAndRemovesSpecialCharacters() {
+    assertEquals("player01 1234백 실 3버", OcrPostProcessor.process("  player01\t\t1234백. 실 3버~ \n"));
+    // 제거된 특수문자 양옆의 공백은 정규식 버전처럼 그대로 남음
+    assertEquals("a  b", OcrPostProcessor.process("a - b"));
+    assertEquals("", OcrPostProcessor.process(" — "));
+    assertEquals("unchanged", OcrPostProcessor.process("unchanged"));
+  }
+
+  @Test
+  public void addCommasToNumbersRegroupsDigits() {
+    assertEquals("1,234,567", DynamicTextRegionFinder.addCommasToNumbers("1234567"));
+    assertEquals("12,345", DynamicTextRegionFinder.addCommasToNumbers("1,2345"));
+    assertEquals("12 7", DynamicTextRegionFinder.addCommasToNumbers("12, 007"));
+    assertEquals("1,234,567", DynamicTextRegionFinder.addCommasToNumbers("1,234,567"));
+    assertEquals("no digits", DynamicTextRegionFinder.addCommasToNumbers("no digits"));
+  }
+
+  @Test
+  public void displayText() {
+    var left = new DynamicTextRegionFinder.Player(1, 0, 0, 0, 0);
+    var right = new DynamicTextRegionFinder.Player(3, 0, 0, 0, 0);
+
+    assertEquals("[Player 1] playerA 1,234 WON", left.getDisplayText("playerA 1234백 실 3버"));
+    assertEquals("[Player 3]  player03 12,345 WON", right.getDisplayText("12,345백 실 3버 player03"));
+    assertEquals("[Player 3] 12,345 WON", right.getDisplayText("12,345백 실 3버"));
+  }
+}
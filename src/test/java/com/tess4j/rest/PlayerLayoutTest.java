@@ -0,0 +1,62 @@
+/* (C) 2024 */
+package com.tess4j.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class PlayerLayoutTest {
+
+  @Test
+  public void iteratesInSeatOrderAndKeepsExistingSeats() {
+    var layout = PlayerLayout.of(List.of(player(7, 0.7), player(2, 0.2)));
+    var found = PlayerLayout.of(List.of(player(2, 0.9), player(5, 0.5)));
+
+    assertEquals(1, layout.addAll(found));
+    assertEquals(3, layout.size());
+    assertEquals(0.2, layout.get(2).getX());
+    assertEquals(List.of(2, 5, 7), layout.toList().stream().map(DynamicTextRegionFinder.Player::getIndex).toList());
+    assertEquals(Set.of(1, 3, 4, 6, 8, 9), layout.missingIndices());
+  }
+
+  @Test
+  public void ignoresSeatsOutsideTheTable() {
+    var layout = new PlayerLayout();
+
+    assertFalse(layout.add(player(0, 0)));
+    assertFalse(layout.add(player(10, 0)));
+    assertTrue(layout.add(player(9, 0)));
+    assertFalse(layout.add(player(9, 0.5)));
+    assertTrue(layout.contains(9));
+    assertEquals(1, layout.size());
+  }
+
+  @Test
+  public void copyIsIndependent() {
+    var layout = PlayerLayout.of(List.of(player(1, 0.1)));
+    var copy = layout.copy();
+    copy.add(player(3, 0.3));
+
+    assertEquals(1, layout.size());
+    assertEquals(2, copy.size());
+  }
+
+  @Test
+  public void serializesAsPlayerArray() throws Exception {
+    var layout = PlayerLayout.of(List.of(player(3, 0.5), player(1, 0.25)));
+
+    String json = new ObjectMapper().writeValueAsString(layout);
+
+    assertTrue(json.startsWith("[{"));
+    assertTrue(json.indexOf("\"index\":1") < json.indexOf("\"index\":3"));
+  }
+
+  private static DynamicTextRegionFinder.Player player(int index, double x) {
+    return new DynamicTextRegionFinder.Player(index, x, 0.5, 0.2, 0.03);
+  }
+}
@@ -0,0 +1,51 @@
+/* (C) 2024 */
+package com.tess4j.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tess4j.rest.Tess4jV1.TextWithCoordinates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class RecognitionResultRingTest {
+
+  private final RecognitionResultRing ring = new RecognitionResultRing(2, Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+
+  @Test
+  public void returnsOnlyChangedAndRemovedRegions() {
+    var first = ring.record("user", List.of(text("[Player 1] 100 WON", 0), text("[Player 2] 200 WON", 50)), 0);
+    assertTrue(first.full());
+    assertEquals(2, first.changed().size());
+
+    var second = ring.record("user", List.of(text("[Player 1] 150 WON", 0)), first.sequence());
+    assertFalse(second.full());
+    assertEquals(List.of("[Player 1] 150 WON"), second.changed().stream().map(TextWithCoordinates::getText).toList());
+    assertEquals(1, second.removed().size());
+    assertEquals(50, second.removed().get(0).getY());
+  }
+
+  @Test
+  public void fallsBackToFullResultWhenSinceIsNoLongerKept() {
+    var first = ring.record("user", List.of(text("a", 0)), 0);
+    var second = ring.record("user", List.of(text("a", 0)), first.sequence());
+    ring.record("user", List.of(text("a", 0)), second.sequence());
+
+    assertTrue(second.changed().isEmpty());
+    assertTrue(ring.record("user", List.of(text("a", 0)), first.sequence()).full());
+  }
+
+  @Test
+  public void sequencesAreNotSharedBetweenUsers() {
+    var first = ring.record("user", List.of(text("a", 0)), 0);
+
+    assertTrue(ring.record("other", List.of(text("a", 0)), first.sequence()).full());
+  }
+
+  private static TextWithCoordinates text(String text, int y) {
+    return new TextWithCoordinates(text, 10, y, 100, 20);
+  }
+}